@@ -0,0 +1,17 @@
+package android.os;
+
+/**
+ * 基准测试在JVM上运行, android-all中的Build初始化时依赖native方法.
+ * OkHttp和RxJava检测到android的类之后会读取 {@link VERSION#SDK_INT}, 和android-all的版本一致
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class Build {
+
+    public static class VERSION {
+        public static final int SDK_INT = 16;
+    }
+}
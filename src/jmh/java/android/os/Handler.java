@@ -0,0 +1,28 @@
+package android.os;
+
+/**
+ * 基准测试在JVM上运行, {@link #post(Runnable)} 直接在当前线程执行, 回调的耗时也会计入结果
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class Handler {
+
+    public Handler() {
+    }
+
+    public Handler(Looper looper) {
+    }
+
+    public final boolean post(Runnable r) {
+        r.run();
+        return true;
+    }
+
+    public final boolean postDelayed(Runnable r, long delayMillis) {
+        r.run();
+        return true;
+    }
+}
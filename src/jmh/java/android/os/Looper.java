@@ -0,0 +1,25 @@
+package android.os;
+
+/**
+ * 基准测试在JVM上运行, 没有消息循环, 只保留库代码用到的方法
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class Looper {
+
+    private static final Looper mainLooper = new Looper();
+
+    private Looper() {
+    }
+
+    public static Looper getMainLooper() {
+        return mainLooper;
+    }
+
+    public static Looper myLooper() {
+        return null;
+    }
+}
@@ -0,0 +1,23 @@
+package android.os;
+
+/**
+ * 基准测试在JVM上运行, 使用 {@link System#nanoTime()} 代替
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class SystemClock {
+
+    private SystemClock() {
+    }
+
+    public static long elapsedRealtime() {
+        return System.nanoTime() / 1_000_000;
+    }
+
+    public static long uptimeMillis() {
+        return System.nanoTime() / 1_000_000;
+    }
+}
@@ -0,0 +1,37 @@
+package android.text;
+
+/**
+ * 基准测试在JVM上运行, android-all中的TextUtils初始化时依赖native方法, 只保留库代码用到的方法
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class TextUtils {
+
+    private TextUtils() {
+    }
+
+    public static boolean isEmpty(CharSequence str) {
+        return str == null || str.length() == 0;
+    }
+
+    public static boolean equals(CharSequence a, CharSequence b) {
+        if (a == b) {
+            return true;
+        }
+        if (a != null && b != null && a.length() == b.length()) {
+            if (a instanceof String && b instanceof String) {
+                return a.equals(b);
+            }
+            for (int i = 0; i < a.length(); i++) {
+                if (a.charAt(i) != b.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package android.util;
+
+/**
+ * 基准测试在JVM上运行, 日志直接丢弃, 只计算格式化日志的开销
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class Log {
+
+    private Log() {
+    }
+
+    public static int v(String tag, String msg) {
+        return msg.length();
+    }
+
+    public static int d(String tag, String msg) {
+        return msg.length();
+    }
+
+    public static int i(String tag, String msg) {
+        return msg.length();
+    }
+
+    public static int w(String tag, String msg) {
+        return msg.length();
+    }
+
+    public static int e(String tag, String msg) {
+        return msg.length();
+    }
+
+    public static int wtf(String tag, String msg) {
+        return msg.length();
+    }
+
+    public static int println(int priority, String tag, String msg) {
+        return msg.length();
+    }
+
+    public static String getStackTraceString(Throwable tr) {
+        if (tr == null) {
+            return "";
+        }
+        java.io.StringWriter writer = new java.io.StringWriter();
+        tr.printStackTrace(new java.io.PrintWriter(writer));
+        return writer.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.angcyo.http;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BytesHexStrTranslate} 和 {@link UDP} 的16进制转换
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HexBenchmark {
+
+    @Param({"16", "1024"})
+    public int size;
+
+    private byte[] bytes;
+    private String hex;
+
+    @Setup
+    public void setup() {
+        bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        hex = BytesHexStrTranslate.bytesToHexFun2(bytes);
+    }
+
+    @Benchmark
+    public String bytesToHexFun1() {
+        return BytesHexStrTranslate.bytesToHexFun1(bytes);
+    }
+
+    @Benchmark
+    public String bytesToHexFun2() {
+        return BytesHexStrTranslate.bytesToHexFun2(bytes);
+    }
+
+    @Benchmark
+    public String bytesToHexFun3() {
+        return BytesHexStrTranslate.bytesToHexFun3(bytes);
+    }
+
+    @Benchmark
+    public String udpHexString() {
+        return UDP.hexString(bytes);
+    }
+
+    @Benchmark
+    public byte[] udpHexStringToByteArray() {
+        return UDP.hexStringToByteArray(hex);
+    }
+
+    @Benchmark
+    public String udpFormatHex() {
+        return UDP.formatHex(hex);
+    }
+}
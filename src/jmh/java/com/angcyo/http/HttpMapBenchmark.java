@@ -0,0 +1,50 @@
+package com.angcyo.http;
+
+import okhttp3.RequestBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求参数的组装: {@link Http#map(String...)}, {@link Http#mapJson(String...)} 和 {@link Http#jsonBody(String...)}
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpMapBenchmark {
+
+    private final String[] args = {"uid:10086", "token:0a1b2c3d4e5f", "page:1", "size:20", "keyword:angcyo", "empty:"};
+
+    @Benchmark
+    public Map<String, Object> map() {
+        return Http.map(args);
+    }
+
+    @Benchmark
+    public String mapJson() {
+        return Http.mapJson(args);
+    }
+
+    @Benchmark
+    public long jsonBody() throws Exception {
+        RequestBody body = Http.jsonBody(args);
+        return body.contentLength();
+    }
+}
@@ -0,0 +1,79 @@
+package com.angcyo.http;
+
+import com.angcyo.http.type.TypeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Json#from(String, Type)} 和 {@link Json#from2(String, Class)} 的对比
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    public static class Bean {
+        public int id;
+        public long time;
+        public String name;
+        public double score;
+        public boolean vip;
+        public int[] tags;
+    }
+
+    private static final String BEAN = "{\"id\":10086,\"time\":1539590400000,\"name\":\"angcyo\"," +
+            "\"score\":98.5,\"vip\":true,\"tags\":[1,2,3,4,5]}";
+
+    private String json;
+    private String listJson;
+    private Type listType;
+
+    @Setup
+    public void setup() {
+        json = BEAN;
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(BEAN);
+        }
+        listJson = builder.append(']').toString();
+        listType = TypeBuilder.listOf(Bean.class);
+    }
+
+    @Benchmark
+    public Bean from() {
+        return Json.from(json, Bean.class);
+    }
+
+    @Benchmark
+    public Bean from2() {
+        return Json.from2(json, Bean.class);
+    }
+
+    @Benchmark
+    public List<Bean> fromList() {
+        return Json.from(listJson, listType);
+    }
+}
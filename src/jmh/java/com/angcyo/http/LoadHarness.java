@@ -0,0 +1,292 @@
+package com.angcyo.http;
+
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.android.plugins.RxAndroidPlugins;
+import rx.android.plugins.RxAndroidSchedulersHook;
+import rx.schedulers.Schedulers;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * 端到端的压测: 本地 {@link MockWebServer} + {@link Http#create(Class)} + {@link Http#transformerBean(Class)},
+ * 经过完整的拦截器链, 调度器和解析, 不需要网络.
+ * <p>
+ * 参数(key=value): requests=总请求数, concurrency=同时进行的请求数, payload=响应体字节数,
+ * latency=服务端延迟毫秒, warmup=预热请求数.
+ * <pre>
+ *     ./gradlew loadTest -PloadArgs="requests=5000 concurrency=64 payload=16384 latency=10"
+ * </pre>
+ * 输出每秒请求数, 延迟百分位, 线程数, 分配的内存和GC次数.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class LoadHarness {
+
+    interface Api {
+        @GET("items")
+        Observable<ResponseBody> items(@Query("i") int i);
+    }
+
+    public static class Item {
+        public int id;
+        public String name;
+        public double price;
+        public boolean available;
+    }
+
+    public static class Payload {
+        public int code;
+        public List<Item> items;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            for (String option : arg.split("\\s+")) {
+                int index = option.indexOf('=');
+                if (index > 0) {
+                    options.put(option.substring(0, index), option.substring(index + 1));
+                }
+            }
+        }
+        int requests = intOption(options, "requests", 2000);
+        int concurrency = intOption(options, "concurrency", 32);
+        int payload = intOption(options, "payload", 4096);
+        int latency = intOption(options, "latency", 5);
+        int warmup = intOption(options, "warmup", Math.min(500, requests));
+
+        //没有主线程, 结果直接在解析线程回调
+        RxAndroidPlugins.getInstance().registerSchedulersHook(new RxAndroidSchedulersHook() {
+            @Override
+            public Scheduler getMainThreadScheduler() {
+                return Schedulers.immediate();
+            }
+        });
+
+        //每个请求一行INFO日志, 会影响结果
+        Logger.getLogger(MockWebServer.class.getName()).setLevel(Level.WARNING);
+
+        MockWebServer server = new MockWebServer();
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(new PayloadDispatcher(payloadJson(payload), latency));
+        server.start();
+        Http.BASE_URL = server.url("/").toString();
+        Api api = Http.create(Api.class);
+
+        System.out.println(String.format(Locale.US,
+                "requests:%d concurrency:%d payload:%dB latency:%dms warmup:%d",
+                requests, concurrency, payload, latency, warmup));
+
+        run(api, warmup, concurrency, 0);
+
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        threadBean.resetPeakThreadCount();
+        long gcCount = gcCount();
+        long gcTime = gcTime();
+        long allocated = allocatedBytes(threadBean);
+        long startTime = System.nanoTime();
+
+        Result result = run(api, requests, concurrency, warmup);
+
+        long tookNanos = System.nanoTime() - startTime;
+        long allocatedDelta = allocatedBytes(threadBean) - allocated;
+        LatencyHistogram.Snapshot snapshot = result.histogram.snapshot();
+
+        System.out.println(String.format(Locale.US, "throughput: %.1f req/s  errors:%d",
+                requests / (tookNanos / 1e9), result.errors.get()));
+        System.out.println("latency: " + snapshot);
+        System.out.println(String.format(Locale.US, "threads: peak:%d live:%d",
+                threadBean.getPeakThreadCount(), threadBean.getThreadCount()));
+        //只统计测试结束时还存活的线程, 是近似值
+        System.out.println(String.format(Locale.US, "heap: allocated~%.1fMB (~%.1fKB/req, live threads) gc:%d (%dms)",
+                allocatedDelta / 1024.0 / 1024.0, allocatedDelta / 1024.0 / requests,
+                gcCount() - gcCount, gcTime() - gcTime));
+        System.out.println("schedulers: " + HttpSchedulers.stats());
+        System.out.println("limiter: " + ConcurrencyLimiter.stats());
+        System.out.println("clients: " + HttpClients.stats());
+
+        server.shutdown();
+        System.exit(0);
+    }
+
+    private static Result run(Api api, int requests, int concurrency, int offset) throws InterruptedException {
+        final Result result = new Result();
+        final Semaphore permits = new Semaphore(concurrency);
+        final CountDownLatch latch = new CountDownLatch(requests);
+        for (int i = 0; i < requests; i++) {
+            permits.acquire();
+            final long startTime = System.nanoTime();
+            //参数不同, 避免被SingleFlight合并
+            api.items(offset + i)
+                    .compose(Http.transformerBean(Payload.class))
+                    .subscribe(new Subscriber<Payload>() {
+                        @Override
+                        public void onNext(Payload payload) {
+                            result.histogram.record(System.nanoTime() - startTime);
+                        }
+
+                        @Override
+                        public void onError(Throwable e) {
+                            result.errors.incrementAndGet();
+                            permits.release();
+                            latch.countDown();
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            permits.release();
+                            latch.countDown();
+                        }
+                    });
+        }
+        latch.await();
+        return result;
+    }
+
+    private static String payloadJson(int size) {
+        StringBuilder builder = new StringBuilder("{\"code\":200,\"items\":[");
+        for (int i = 0; builder.length() < size - 2; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"id\":").append(i)
+                    .append(",\"name\":\"item-").append(i)
+                    .append("\",\"price\":").append(i * 1.5)
+                    .append(",\"available\":").append(i % 2 == 0)
+                    .append('}');
+        }
+        return builder.append("]}").toString();
+    }
+
+    private static int intOption(Map<String, String> options, String key, int defaultValue) {
+        String value = options.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    /**
+     * 存活线程分配的字节数, 结束的线程不会统计, 所以两次相减只是近似值(偏小)
+     */
+    private static long allocatedBytes(ThreadMXBean threadBean) {
+        if (!(threadBean instanceof com.sun.management.ThreadMXBean)) {
+            return 0;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+        long total = 0;
+        for (long bytes : bean.getThreadAllocatedBytes(bean.getAllThreadIds())) {
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+        return total;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return time;
+    }
+
+    private static final class Result {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    /**
+     * MockWebServer先flush响应头再写响应体, 不关闭Nagle的话会和客户端的延迟ACK叠加出40ms的RTT
+     */
+    private static final class NoDelayServerSocketFactory extends ServerSocketFactory {
+
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new NoDelayServerSocket();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            return createServerSocket(port, 50, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            return createServerSocket(port, backlog, null);
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            ServerSocket socket = new NoDelayServerSocket();
+            socket.bind(new InetSocketAddress(address, port), backlog);
+            return socket;
+        }
+    }
+
+    private static final class NoDelayServerSocket extends ServerSocket {
+
+        NoDelayServerSocket() throws IOException {
+        }
+
+        @Override
+        public Socket accept() throws IOException {
+            Socket socket = super.accept();
+            socket.setTcpNoDelay(true);
+            return socket;
+        }
+    }
+
+    private static final class PayloadDispatcher extends Dispatcher {
+        final String body;
+        final int latency;
+
+        PayloadDispatcher(String body, int latency) {
+            this.body = body;
+            this.latency = latency;
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            return new MockResponse()
+                    .setHeader("Content-Type", "application/json; charset=utf-8")
+                    .setBody(body)
+                    .setHeadersDelay(latency, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.angcyo.http;
+
+import com.angcyo.http.log.HttpLoggingInterceptorM;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HttpLoggingInterceptorM} 每个 {@link HttpLoggingInterceptorM.Level} 的开销,
+ * 不走网络, 响应由 {@link LocalChain} 直接返回, 日志只计算长度不输出.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingInterceptorBenchmark {
+
+    private static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+
+    @Param({"NONE", "BASIC", "HEADERS", "BODY"})
+    public HttpLoggingInterceptorM.Level level;
+
+    private HttpLoggingInterceptorM interceptor;
+    private LocalChain chain;
+    private long logLength;
+
+    @Setup
+    public void setup() {
+        interceptor = new HttpLoggingInterceptorM(new HttpLoggingInterceptorM.Logger() {
+            @Override
+            public void log(String message, int type) {
+                logLength += message.length();
+            }
+        });
+        interceptor.setLevel(level);
+
+        StringBuilder builder = new StringBuilder("{\"data\":[");
+        for (int i = 0; i < 20; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"id\":").append(i).append(",\"name\":\"item").append(i).append("\"}");
+        }
+        byte[] body = builder.append("]}").toString().getBytes();
+
+        Request request = new Request.Builder()
+                .url("http://www.api.com/user/list")
+                .header("Authorization", "Bearer 0a1b2c3d4e5f")
+                .post(RequestBody.create(JSON, "{\"page\":1,\"size\":20}"))
+                .build();
+        chain = new LocalChain(request, body);
+    }
+
+    @Benchmark
+    public long intercept() throws IOException {
+        Response response = interceptor.intercept(chain);
+        long length = response.body().bytes().length;
+        return length + logLength;
+    }
+
+    /**
+     * 每次返回一个新的响应
+     */
+    static final class LocalChain implements Interceptor.Chain {
+        final Request request;
+        final byte[] body;
+
+        LocalChain(Request request, byte[] body) {
+            this.request = request;
+            this.body = body;
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Response proceed(Request request) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .header("Content-Type", JSON.toString())
+                    .header("Cache-Control", "no-cache")
+                    .body(ResponseBody.create(JSON, body))
+                    .build();
+        }
+
+        @Override
+        public Connection connection() {
+            return null;
+        }
+
+        @Override
+        public Call call() {
+            return null;
+        }
+
+        @Override
+        public int connectTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withConnectTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int readTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withReadTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+
+        @Override
+        public int writeTimeoutMillis() {
+            return 0;
+        }
+
+        @Override
+        public Interceptor.Chain withWriteTimeout(int timeout, TimeUnit unit) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.angcyo.http;
+
+import android.os.Handler;
+import android.os.Looper;
+import com.angcyo.http.progress.ProgressInfo;
+import com.angcyo.http.progress.ProgressListener;
+import com.angcyo.http.progress.ProgressResponseBody;
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import okio.Okio;
+import okio.Sink;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过 {@link ProgressResponseBody} 读取body的额外开销, 和直接读取对比.
+ * refreshTime为0时每次read都会分发进度.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgressResponseBodyBenchmark {
+
+    private static final MediaType OCTET = MediaType.parse("application/octet-stream");
+
+    @Param({"0", "150"})
+    public int refreshTime;
+
+    private byte[] data;
+    private Handler handler;
+    private List<ProgressListener> listeners;
+    private final Sink blackhole = Okio.blackhole();
+
+    @Setup
+    public void setup() {
+        data = new byte[256 * 1024];
+        handler = new Handler(Looper.getMainLooper());
+        listeners = new ArrayList<>();
+        listeners.add(new ProgressListener() {
+            @Override
+            public void onProgress(ProgressInfo progressInfo) {
+            }
+
+            @Override
+            public void onError(long id, Exception e) {
+            }
+        });
+    }
+
+    @Benchmark
+    public long direct() throws IOException {
+        return ResponseBody.create(OCTET, data).source().readAll(blackhole);
+    }
+
+    @Benchmark
+    public long progress() throws IOException {
+        ResponseBody body = new ProgressResponseBody(handler, ResponseBody.create(OCTET, data), listeners, refreshTime);
+        return body.source().readAll(blackhole);
+    }
+}
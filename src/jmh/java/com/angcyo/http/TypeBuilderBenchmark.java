@@ -0,0 +1,54 @@
+package com.angcyo.http;
+
+import com.angcyo.http.type.TypeBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TypeBuilder} 创建泛型类型的开销
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeBuilderBenchmark {
+
+    @Benchmark
+    public Type build() {
+        return TypeBuilder.build(List.class, String.class);
+    }
+
+    @Benchmark
+    public Type listOf() {
+        return TypeBuilder.listOf(Integer.class);
+    }
+
+    @Benchmark
+    public Type nested() {
+        return TypeBuilder.newInstance(Map.class)
+                .addTypeParam(String.class)
+                .beginSubType(List.class)
+                .addTypeParam(Integer.class)
+                .endSubType()
+                .build();
+    }
+}
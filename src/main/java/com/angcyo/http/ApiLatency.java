@@ -0,0 +1,136 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import okhttp3.Request;
+import retrofit2.Invocation;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按Retrofit接口方法统计请求耗时(callStart到callEnd), 每个方法一个 {@link LatencyHistogram}.
+ * <p>
+ * Retrofit会把调用的方法放在请求的 {@link Invocation} tag中, {@link HttpEventListener} 据此记录,
+ * 不依赖url, 所以path中带参数的接口也只有一个统计.
+ * 通过 {@link Http#create} 创建的接口, 方法会提前注册, 没有请求的方法也能看到.
+ * <p>
+ * 定时调用 {@link #intervalStats()} 可以得到每个时间段的p99/p999, 用于尾延迟报警.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class ApiLatency {
+
+    public static boolean ENABLE = true;
+
+    private static final ConcurrentHashMap<Method, Recorder> recorders = new ConcurrentHashMap<>();
+
+    private ApiLatency() {
+    }
+
+    /**
+     * 注册接口的所有方法
+     */
+    public static void register(@NonNull Class<?> service) {
+        if (!ENABLE) {
+            return;
+        }
+        for (Method method : service.getDeclaredMethods()) {
+            recorder(method);
+        }
+    }
+
+    /**
+     * @return null 不是Retrofit接口发起的请求
+     */
+    @Nullable
+    static Method method(@NonNull Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        return invocation == null ? null : invocation.method();
+    }
+
+    static void record(@NonNull Method method, long nanos) {
+        if (ENABLE) {
+            recorder(method).histogram.record(nanos);
+        }
+    }
+
+    private static Recorder recorder(Method method) {
+        Recorder recorder = recorders.get(method);
+        if (recorder == null) {
+            recorder = new Recorder(method);
+            Recorder exist = recorders.putIfAbsent(method, recorder);
+            if (exist != null) {
+                recorder = exist;
+            }
+        }
+        return recorder;
+    }
+
+    /**
+     * @return null 没有注册或者记录
+     */
+    @Nullable
+    public static LatencyHistogram.Snapshot snapshot(@NonNull Method method) {
+        Recorder recorder = recorders.get(method);
+        return recorder == null ? null : recorder.histogram.snapshot();
+    }
+
+    /**
+     * 每个方法的累计统计
+     */
+    public static List<Stats> stats() {
+        List<Stats> result = new ArrayList<>();
+        for (Recorder recorder : recorders.values()) {
+            result.add(new Stats(recorder.name, recorder.histogram.snapshot()));
+        }
+        return result;
+    }
+
+    /**
+     * 每个方法从上一次调用到现在的统计
+     */
+    public static List<Stats> intervalStats() {
+        List<Stats> result = new ArrayList<>();
+        for (Recorder recorder : recorders.values()) {
+            result.add(new Stats(recorder.name, recorder.histogram.intervalSnapshot()));
+        }
+        return result;
+    }
+
+    public static void clear() {
+        recorders.clear();
+    }
+
+    private static final class Recorder {
+        final String name;
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        Recorder(Method method) {
+            name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+    }
+
+    public static class Stats {
+        /**
+         * 接口类名.方法名
+         */
+        public final String name;
+        public final LatencyHistogram.Snapshot snapshot;
+
+        Stats(String name, LatencyHistogram.Snapshot snapshot) {
+            this.name = name;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + snapshot;
+        }
+    }
+}
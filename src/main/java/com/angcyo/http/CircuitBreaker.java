@@ -0,0 +1,300 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个host一个熔断器, 由 {@link CircuitBreakerInterceptor} 使用.
+ * <ul>
+ * <li>CLOSED: 正常请求, 统计最近 {@link #WINDOW_MS} 内的失败率和慢请求比例,
+ * 请求数达到 {@link #MIN_CALLS} 并且任意一个比例超过阈值时打开</li>
+ * <li>OPEN: 直接抛出 {@link CircuitOpenException}, 不发出请求, {@link #OPEN_MS} 之后进入半开</li>
+ * <li>HALF_OPEN: 只放行 {@link #HALF_OPEN_PROBES} 个探测请求, 全部成功后关闭, 任意一个失败重新打开</li>
+ * </ul>
+ * 失败: 抛出IOException或者返回5xx. 慢请求: 耗时超过 {@link #SLOW_CALL_MS}.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class CircuitBreaker {
+
+    public static final int STATE_CLOSED = 0;
+    public static final int STATE_OPEN = 1;
+    public static final int STATE_HALF_OPEN = 2;
+
+    public static boolean ENABLE = true;
+    public static long WINDOW_MS = 10_000;
+    public static int MIN_CALLS = 10;
+    public static float FAILURE_RATE_THRESHOLD = 0.5f;
+    public static long SLOW_CALL_MS = 3_000;
+    public static float SLOW_RATE_THRESHOLD = 0.8f;
+    public static long OPEN_MS = 5_000;
+    public static int HALF_OPEN_PROBES = 3;
+
+    /**
+     * 状态变化回调, 在请求线程执行
+     */
+    public static OnStateChangeListener stateChangeListener;
+
+    /**
+     * 滑动窗口的桶数量
+     */
+    private static final int BUCKET_COUNT = 10;
+
+    private static final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    public final String host;
+
+    private final Bucket[] buckets = new Bucket[BUCKET_COUNT];
+    private int state = STATE_CLOSED;
+    private long openTime;
+    /**
+     * 半开状态下剩余可以放行的探测请求
+     */
+    private int probePermits;
+    private int probeSuccess;
+
+    private CircuitBreaker(String host) {
+        this.host = host;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new Bucket();
+        }
+    }
+
+    @NonNull
+    public static CircuitBreaker of(@NonNull String host) {
+        CircuitBreaker breaker = breakers.get(host);
+        if (breaker == null) {
+            breaker = new CircuitBreaker(host);
+            CircuitBreaker exist = breakers.putIfAbsent(host, breaker);
+            if (exist != null) {
+                breaker = exist;
+            }
+        }
+        return breaker;
+    }
+
+    public static List<CircuitBreaker> all() {
+        return new ArrayList<>(breakers.values());
+    }
+
+    /**
+     * 关闭并清空所有熔断器
+     */
+    public static void resetAll() {
+        breakers.clear();
+    }
+
+    /**
+     * 请求之前调用
+     *
+     * @return false 熔断中, 不能请求
+     */
+    public boolean tryAcquire() {
+        int from;
+        synchronized (this) {
+            if (state == STATE_CLOSED) {
+                return true;
+            }
+            if (state == STATE_OPEN) {
+                if (now() - openTime < TimeUnit.MILLISECONDS.toNanos(OPEN_MS)) {
+                    return false;
+                }
+                from = state;
+                state = STATE_HALF_OPEN;
+                probePermits = HALF_OPEN_PROBES;
+                probeSuccess = 0;
+            } else {
+                from = STATE_HALF_OPEN;
+            }
+            if (probePermits <= 0) {
+                return false;
+            }
+            probePermits--;
+        }
+        if (from != STATE_HALF_OPEN) {
+            notifyStateChange(from, STATE_HALF_OPEN);
+        }
+        return true;
+    }
+
+    /**
+     * 请求结束之后调用
+     */
+    public void record(boolean success, long latencyMs) {
+        int from;
+        int to;
+        synchronized (this) {
+            from = state;
+            Bucket bucket = currentBucket();
+            bucket.calls++;
+            bucket.latencyMs += latencyMs;
+            if (!success) {
+                bucket.failures++;
+            }
+            if (latencyMs >= SLOW_CALL_MS) {
+                bucket.slowCalls++;
+            }
+
+            if (state == STATE_HALF_OPEN) {
+                if (!success) {
+                    open();
+                } else if (++probeSuccess >= HALF_OPEN_PROBES) {
+                    state = STATE_CLOSED;
+                    resetBuckets();
+                }
+            } else if (state == STATE_CLOSED) {
+                int calls = 0;
+                int failures = 0;
+                int slowCalls = 0;
+                long windowStart = now() - TimeUnit.MILLISECONDS.toNanos(WINDOW_MS);
+                for (Bucket b : buckets) {
+                    if (b.startTime >= windowStart) {
+                        calls += b.calls;
+                        failures += b.failures;
+                        slowCalls += b.slowCalls;
+                    }
+                }
+                if (calls >= MIN_CALLS &&
+                        (failures >= calls * FAILURE_RATE_THRESHOLD || slowCalls >= calls * SLOW_RATE_THRESHOLD)) {
+                    open();
+                }
+            }
+            to = state;
+        }
+        if (from != to) {
+            notifyStateChange(from, to);
+        }
+    }
+
+    /**
+     * 请求被取消, 没有结果时调用, 归还半开状态下的探测名额
+     */
+    public synchronized void release() {
+        if (state == STATE_HALF_OPEN) {
+            probePermits++;
+        }
+    }
+
+    public synchronized int getState() {
+        return state;
+    }
+
+    public synchronized Snapshot snapshot() {
+        int calls = 0;
+        int failures = 0;
+        int slowCalls = 0;
+        long latencyMs = 0;
+        long windowStart = now() - TimeUnit.MILLISECONDS.toNanos(WINDOW_MS);
+        for (Bucket b : buckets) {
+            if (b.startTime >= windowStart) {
+                calls += b.calls;
+                failures += b.failures;
+                slowCalls += b.slowCalls;
+                latencyMs += b.latencyMs;
+            }
+        }
+        return new Snapshot(host, state, calls, failures, slowCalls, calls == 0 ? 0 : latencyMs / calls);
+    }
+
+    private void open() {
+        state = STATE_OPEN;
+        openTime = now();
+    }
+
+    /**
+     * 当前时间对应的桶, 过期的桶会被重用
+     */
+    private Bucket currentBucket() {
+        long now = now();
+        long bucketNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(BUCKET_COUNT, WINDOW_MS)) / BUCKET_COUNT;
+        long index = now / bucketNanos;
+        //nanoTime可能为负数
+        Bucket bucket = buckets[(int) ((index % BUCKET_COUNT + BUCKET_COUNT) % BUCKET_COUNT)];
+        long startTime = index * bucketNanos;
+        if (bucket.startTime != startTime) {
+            bucket.startTime = startTime;
+            bucket.calls = 0;
+            bucket.failures = 0;
+            bucket.slowCalls = 0;
+            bucket.latencyMs = 0;
+        }
+        return bucket;
+    }
+
+    private void resetBuckets() {
+        for (Bucket bucket : buckets) {
+            bucket.startTime = Long.MIN_VALUE;
+        }
+    }
+
+    private void notifyStateChange(int from, int to) {
+        OnStateChangeListener listener = stateChangeListener;
+        if (listener != null) {
+            listener.onStateChange(host, from, to);
+        }
+    }
+
+    private static long now() {
+        return System.nanoTime();
+    }
+
+    public static String stateName(int state) {
+        switch (state) {
+            case STATE_OPEN:
+                return "OPEN";
+            case STATE_HALF_OPEN:
+                return "HALF_OPEN";
+            default:
+                return "CLOSED";
+        }
+    }
+
+    public interface OnStateChangeListener {
+        void onStateChange(String host, int fromState, int toState);
+    }
+
+    private static final class Bucket {
+        long startTime = Long.MIN_VALUE;
+        int calls;
+        int failures;
+        int slowCalls;
+        long latencyMs;
+    }
+
+    /**
+     * 窗口内的统计
+     */
+    public static class Snapshot {
+        public final String host;
+        public final int state;
+        public final int calls;
+        public final int failures;
+        public final int slowCalls;
+        public final long avgLatencyMs;
+
+        Snapshot(String host, int state, int calls, int failures, int slowCalls, long avgLatencyMs) {
+            this.host = host;
+            this.state = state;
+            this.calls = calls;
+            this.failures = failures;
+            this.slowCalls = slowCalls;
+            this.avgLatencyMs = avgLatencyMs;
+        }
+
+        @Override
+        public String toString() {
+            return host + " " + stateName(state) +
+                    " calls:" + calls +
+                    " failures:" + failures +
+                    " slow:" + slowCalls +
+                    " avg:" + avgLatencyMs + "ms";
+        }
+    }
+}
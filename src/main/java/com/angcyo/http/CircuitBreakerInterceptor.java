@@ -0,0 +1,62 @@
+package com.angcyo.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按host熔断, 见 {@link CircuitBreaker}.
+ * <p>
+ * 放在 {@link RetryInterceptor} 和 {@link ConcurrencyLimitInterceptor} 之后, 每次重试都会经过熔断器,
+ * 熔断时抛出的 {@link CircuitOpenException} 不会被重试. 本地排队的时间和 {@link ConcurrencyLimitException} 不计入统计.
+ * 只读缓存的请求和缓存直接返回的响应不计入统计.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        //只读缓存的请求不访问网络, 不经过熔断器
+        if (!CircuitBreaker.ENABLE || HttpCache.isCacheOnly(request)) {
+            return chain.proceed(request);
+        }
+
+        String host = request.url().host();
+        CircuitBreaker breaker = CircuitBreaker.of(host);
+        if (!breaker.tryAcquire()) {
+            throw new CircuitOpenException(host);
+        }
+
+        long startTime = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            //本地限流超时不代表host的状态
+            if (chain.call().isCanceled() || e instanceof ConcurrencyLimitException) {
+                breaker.release();
+            } else {
+                breaker.record(false, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            breaker.release();
+            throw e;
+        }
+        if (response.networkResponse() == null) {
+            //缓存直接返回的响应(包括缓存未命中的504)不代表服务端的状态, 不统计
+            breaker.release();
+        } else {
+            breaker.record(response.code() < 500, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+        return response;
+    }
+}
@@ -0,0 +1,21 @@
+package com.angcyo.http;
+
+import java.io.IOException;
+
+/**
+ * 熔断器打开时, 请求不会发出, 直接抛出此异常, 见 {@link CircuitBreaker}
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class CircuitOpenException extends IOException {
+
+    public final String host;
+
+    public CircuitOpenException(String host) {
+        super("circuit open:" + host);
+        this.host = host;
+    }
+}
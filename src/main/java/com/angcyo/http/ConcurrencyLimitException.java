@@ -0,0 +1,23 @@
+package com.angcyo.http;
+
+import java.io.IOException;
+
+/**
+ * 在 {@link ConcurrencyLimiter} 中排队超过 {@link ConcurrencyLimiter#MAX_WAIT_MS} 时抛出.
+ * <p>
+ * 这是本地的限流, 不代表服务端出错, 不会被重试, 也不会计入 {@link CircuitBreaker}.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class ConcurrencyLimitException extends IOException {
+
+    public final String host;
+
+    public ConcurrencyLimitException(String host) {
+        super("concurrency limit wait timeout:" + host);
+        this.host = host;
+    }
+}
@@ -0,0 +1,101 @@
+package com.angcyo.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import retrofit2.Invocation;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按host自适应限制并发, 见 {@link ConcurrencyLimiter}.
+ * <p>
+ * 放在 {@link CircuitBreakerInterceptor} 之前, 排队的时间不会计入熔断器的耗时; 熔断时直接失败并归还名额, 不参与调整.
+ * 排队的优先级来自Retrofit接口方法上的 {@link Priority} 注解,
+ * 也可以用请求头 {@link #HEADER_PRIORITY} 指定(优先使用), 发送之前会被移除.
+ * 只读缓存的请求不占用名额.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class ConcurrencyLimitInterceptor implements Interceptor {
+
+    public static final String HEADER_PRIORITY = "X-Http-Priority";
+
+    /**
+     * 注解查找的缓存
+     */
+    private static final Map<Method, Integer> methodPriority = new ConcurrentHashMap<>();
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        Request request = chain.request();
+        int priority = priority(request);
+        if (request.header(HEADER_PRIORITY) != null) {
+            request = request.newBuilder().removeHeader(HEADER_PRIORITY).build();
+        }
+        if (!ConcurrencyLimiter.ENABLE || HttpCache.isCacheOnly(request)) {
+            return chain.proceed(request);
+        }
+
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.of(request.url().host());
+        limiter.acquire(priority, new ConcurrencyLimiter.Canceled() {
+            @Override
+            public boolean isCanceled() {
+                return chain.call().isCanceled();
+            }
+        });
+
+        long startTime = System.nanoTime();
+        boolean success = false;
+        long rttNanos = -1;
+        try {
+            Response response = chain.proceed(request);
+            //429和503表示服务端已经过载
+            int code = response.code();
+            success = code != 429 && code != 503;
+            //缓存直接返回的响应耗时接近0, 会拉低最小RTT, 不参与调整
+            if (response.networkResponse() != null || response.cacheResponse() == null) {
+                rttNanos = System.nanoTime() - startTime;
+            }
+            return response;
+        } catch (IOException e) {
+            //熔断时没有访问网络, 不参与调整
+            if (!chain.call().isCanceled() && !(e instanceof CircuitOpenException)) {
+                rttNanos = System.nanoTime() - startTime;
+            }
+            throw e;
+        } finally {
+            //包括RuntimeException和Error, 名额一定归还
+            limiter.release(success, rttNanos);
+        }
+    }
+
+    static int priority(Request request) {
+        String value = request.header(HEADER_PRIORITY);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                return Priority.NORMAL;
+            }
+        }
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) {
+            return Priority.NORMAL;
+        }
+        Method method = invocation.method();
+        Integer priority = methodPriority.get(method);
+        if (priority == null) {
+            Priority annotation = method.getAnnotation(Priority.class);
+            priority = annotation == null ? Priority.NORMAL : annotation.value();
+            methodPriority.put(method, priority);
+        }
+        return priority;
+    }
+}
@@ -0,0 +1,382 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 每个host一个自适应的并发限制, 由 {@link ConcurrencyLimitInterceptor} 使用.
+ * <p>
+ * 限制值根据RTT和失败调整(AIMD):
+ * <ul>
+ * <li>成功, 并且平滑RTT不超过最小RTT的 {@link #RTT_TOLERANCE} 倍: 加性增加, 每个请求 +1/limit</li>
+ * <li>成功, 但平滑RTT超过: 乘以 {@link #LATENCY_BACKOFF}, 说明服务端开始排队</li>
+ * <li>失败: 乘以 {@link #FAILURE_BACKOFF}</li>
+ * </ul>
+ * 和TCP一样, 每个RTT最多减少一次, 同一批请求的慢样本或失败不会把限制连续压到最小值.
+ * 超过限制的请求按优先级排队, 优先级高的先执行, 相同优先级先到先执行.
+ * 低优先级(小于0)的请求最多只能占用 {@link #LOW_PRIORITY_RATIO} 比例的名额, 见 {@link Priority}.
+ * 最小RTT每 {@link #MIN_RTT_RESET_SAMPLES} 个样本重新测量一次, 适应网络变化.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class ConcurrencyLimiter {
+
+    public static boolean ENABLE = true;
+    public static int INITIAL_LIMIT = 8;
+    public static int MIN_LIMIT = 1;
+    /**
+     * 最大限制, 同时也是 {@link okhttp3.Dispatcher#setMaxRequestsPerHost(int)} 的值
+     */
+    public static int MAX_LIMIT = 64;
+    public static double RTT_TOLERANCE = 2.0;
+    public static double LATENCY_BACKOFF = 0.9;
+    public static double FAILURE_BACKOFF = 0.75;
+    public static int MIN_RTT_RESET_SAMPLES = 500;
+    /**
+     * 排队的最长时间, 超过后抛出 {@link ConcurrencyLimitException}
+     */
+    public static long MAX_WAIT_MS = 30_000;
+    /**
+     * 低优先级请求可以使用的名额比例, 至少1个
+     */
+    public static float LOW_PRIORITY_RATIO = 0.5f;
+
+    private static final long CANCEL_CHECK_MS = 100;
+
+    private static final ConcurrentHashMap<String, ConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Integer, PriorityMetric> priorityMetrics = new ConcurrentHashMap<>();
+
+    public final String host;
+
+    private final PriorityQueue<Waiter> queue = new PriorityQueue<>();
+    private double limit = INITIAL_LIMIT;
+    private int inflight;
+    private long sequence;
+
+    private long minRttNanos = Long.MAX_VALUE;
+    /**
+     * 成功请求RTT的指数加权平均, 系数1/8
+     */
+    private long smoothedRttNanos;
+    private long lastBackoffTime;
+    private int samples;
+
+    private long waitCount;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long timeoutCount;
+
+    private ConcurrencyLimiter(String host) {
+        this.host = host;
+    }
+
+    @NonNull
+    public static ConcurrencyLimiter of(@NonNull String host) {
+        ConcurrencyLimiter limiter = limiters.get(host);
+        if (limiter == null) {
+            limiter = new ConcurrencyLimiter(host);
+            ConcurrencyLimiter exist = limiters.putIfAbsent(host, limiter);
+            if (exist != null) {
+                limiter = exist;
+            }
+        }
+        return limiter;
+    }
+
+    public static List<Snapshot> stats() {
+        List<Snapshot> result = new ArrayList<>();
+        for (ConcurrencyLimiter limiter : limiters.values()) {
+            result.add(limiter.snapshot());
+        }
+        return result;
+    }
+
+    /**
+     * 每个优先级的排队统计, 所有host合计
+     */
+    public static List<PriorityMetric> priorityStats() {
+        return new ArrayList<>(priorityMetrics.values());
+    }
+
+    public static void clearPriorityStats() {
+        priorityMetrics.clear();
+    }
+
+    static PriorityMetric priorityMetric(int priority) {
+        PriorityMetric metric = priorityMetrics.get(priority);
+        if (metric == null) {
+            metric = new PriorityMetric(priority);
+            PriorityMetric exist = priorityMetrics.putIfAbsent(priority, metric);
+            if (exist != null) {
+                metric = exist;
+            }
+        }
+        return metric;
+    }
+
+    /**
+     * 获取一个执行名额, 没有名额时排队
+     *
+     * @param priority 越大越优先
+     * @param canceled 排队期间检查请求是否被取消
+     */
+    public void acquire(int priority, Canceled canceled) throws IOException {
+        PriorityMetric metric = priorityMetric(priority);
+        metric.acquireCount.incrementAndGet();
+        Waiter waiter;
+        synchronized (this) {
+            //排队的都是优先级不高于自己的请求时, 有名额可以直接执行
+            Waiter head = queue.peek();
+            if ((head == null || head.priority < priority) && inflight < capacity(priority)) {
+                inflight++;
+                return;
+            }
+            waiter = new Waiter(priority, sequence++);
+            queue.add(waiter);
+        }
+
+        long startTime = System.nanoTime();
+        long deadline = startTime + TimeUnit.MILLISECONDS.toNanos(MAX_WAIT_MS);
+        try {
+            synchronized (waiter) {
+                while (!waiter.granted) {
+                    if (canceled.isCanceled()) {
+                        throw abandon(waiter, new IOException("Canceled"), false);
+                    }
+                    long remain = deadline - System.nanoTime();
+                    if (remain <= 0) {
+                        throw abandon(waiter, new ConcurrencyLimitException(host), true);
+                    }
+                    waiter.wait(Math.min(CANCEL_CHECK_MS, TimeUnit.NANOSECONDS.toMillis(remain) + 1));
+                }
+            }
+        } catch (InterruptedException e) {
+            throw abandon(waiter, new InterruptedIOException(), false);
+        }
+
+        long waitNanos = System.nanoTime() - startTime;
+        metric.record(waitNanos);
+        synchronized (this) {
+            waitCount++;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+        }
+    }
+
+    /**
+     * 放弃排队, 如果在放弃之前已经拿到名额, 归还它
+     *
+     * @param timeout 是否因为排队超时放弃, 计入 {@link Snapshot#timeoutCount}
+     */
+    private IOException abandon(Waiter waiter, IOException e, boolean timeout) {
+        boolean granted;
+        synchronized (this) {
+            //已经不在队列中, 说明名额已经分配, 只是还没有通知到
+            granted = !queue.remove(waiter);
+            synchronized (waiter) {
+                waiter.granted = true;
+            }
+            if (timeout) {
+                timeoutCount++;
+            }
+        }
+        if (granted) {
+            release();
+        }
+        return e;
+    }
+
+    /**
+     * 请求结束后调用, 不论成功失败
+     *
+     * @param rttNanos 请求耗时, 小于0表示没有结果(比如被取消), 不参与调整
+     */
+    public void release(boolean success, long rttNanos) {
+        synchronized (this) {
+            if (rttNanos >= 0) {
+                update(success, rttNanos);
+            }
+        }
+        release();
+    }
+
+    private void release() {
+        List<Waiter> granted = null;
+        synchronized (this) {
+            inflight--;
+            while (!queue.isEmpty() && inflight < capacity(queue.peek().priority)) {
+                Waiter waiter = queue.poll();
+                inflight++;
+                if (granted == null) {
+                    granted = new ArrayList<>();
+                }
+                granted.add(waiter);
+            }
+        }
+        if (granted != null) {
+            for (Waiter waiter : granted) {
+                synchronized (waiter) {
+                    waiter.granted = true;
+                    waiter.notifyAll();
+                }
+            }
+        }
+    }
+
+    private int capacity(int priority) {
+        if (priority < 0) {
+            return Math.max(1, (int) (limit * LOW_PRIORITY_RATIO));
+        }
+        return (int) limit;
+    }
+
+    private void update(boolean success, long rttNanos) {
+        if (++samples >= MIN_RTT_RESET_SAMPLES) {
+            samples = 0;
+            minRttNanos = Long.MAX_VALUE;
+        }
+        if (success) {
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+            smoothedRttNanos = smoothedRttNanos == 0 ? rttNanos : smoothedRttNanos + (rttNanos - smoothedRttNanos) / 8;
+        }
+
+        if (!success || smoothedRttNanos > minRttNanos * RTT_TOLERANCE) {
+            //上一次减少之后的一个RTT内, 这些请求是按旧的限制发出的, 不再重复减少
+            long now = System.nanoTime();
+            if (now - lastBackoffTime >= Math.max(smoothedRttNanos, minRttNanos)) {
+                lastBackoffTime = now;
+                limit = limit * (success ? LATENCY_BACKOFF : FAILURE_BACKOFF);
+            }
+        } else if (inflight >= limit / 2) {
+            //只有在名额被充分使用时才增加
+            limit = limit + 1 / limit;
+        }
+        limit = Math.max(MIN_LIMIT, Math.min(MAX_LIMIT, limit));
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(host, (int) limit, inflight, queue.size(),
+                minRttNanos == Long.MAX_VALUE ? 0 : TimeUnit.NANOSECONDS.toMillis(minRttNanos),
+                waitCount,
+                waitCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos / waitCount),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos),
+                timeoutCount);
+    }
+
+    public interface Canceled {
+        boolean isCanceled();
+    }
+
+    private static final class Waiter implements Comparable<Waiter> {
+        final int priority;
+        final long sequence;
+        boolean granted;
+
+        Waiter(int priority, long sequence) {
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(@NonNull Waiter o) {
+            if (priority != o.priority) {
+                return priority > o.priority ? -1 : 1;
+            }
+            return sequence < o.sequence ? -1 : (sequence == o.sequence ? 0 : 1);
+        }
+    }
+
+    public static final class PriorityMetric {
+        public final int priority;
+        /**
+         * 获取名额的总次数, 包括不需要排队的
+         */
+        public final AtomicLong acquireCount = new AtomicLong();
+        public final AtomicLong waitCount = new AtomicLong();
+        public final AtomicLong totalWaitNanos = new AtomicLong();
+        public final AtomicLong maxWaitNanos = new AtomicLong();
+
+        PriorityMetric(int priority) {
+            this.priority = priority;
+        }
+
+        void record(long waitNanos) {
+            waitCount.incrementAndGet();
+            totalWaitNanos.addAndGet(waitNanos);
+            long max;
+            do {
+                max = maxWaitNanos.get();
+            } while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos));
+        }
+
+        /**
+         * 平均每个请求的排队时间, 不需要排队的按0计算
+         */
+        public long avgWaitMs() {
+            long count = acquireCount.get();
+            return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / count);
+        }
+
+        @Override
+        public String toString() {
+            return "priority:" + priority +
+                    " acquire:" + acquireCount.get() +
+                    " wait:" + waitCount.get() +
+                    " avg:" + avgWaitMs() + "ms" +
+                    " max:" + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()) + "ms";
+        }
+    }
+
+    public static class Snapshot {
+        public final String host;
+        public final int limit;
+        public final int inflight;
+        public final int queueSize;
+        public final long minRttMs;
+        /**
+         * 排队的请求数
+         */
+        public final long waitCount;
+        public final long avgWaitMs;
+        public final long maxWaitMs;
+        /**
+         * 排队超时的请求数
+         */
+        public final long timeoutCount;
+
+        Snapshot(String host, int limit, int inflight, int queueSize, long minRttMs,
+                 long waitCount, long avgWaitMs, long maxWaitMs, long timeoutCount) {
+            this.host = host;
+            this.limit = limit;
+            this.inflight = inflight;
+            this.queueSize = queueSize;
+            this.minRttMs = minRttMs;
+            this.waitCount = waitCount;
+            this.avgWaitMs = avgWaitMs;
+            this.maxWaitMs = maxWaitMs;
+            this.timeoutCount = timeoutCount;
+        }
+
+        @Override
+        public String toString() {
+            return host +
+                    " limit:" + limit +
+                    " inflight:" + inflight +
+                    " queue:" + queueSize +
+                    " minRtt:" + minRttMs + "ms" +
+                    " wait:" + waitCount + "(avg:" + avgWaitMs + "ms max:" + maxWaitMs + "ms)" +
+                    " timeout:" + timeoutCount;
+        }
+    }
+}
@@ -0,0 +1,591 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okhttp3.internal.Util;
+import okhttp3.internal.cache.DiskLruCache;
+import okhttp3.internal.io.FileSystem;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 基于 ETag/Last-Modified 的条件请求缓存, 用于经常轮询但很少变化的接口.
+ * <p>
+ * 调用 {@link #init(File)} 之后生效:
+ * <ul>
+ * <li>{@link ConditionalCacheInterceptor} 为有缓存的GET请求自动添加 If-None-Match/If-Modified-Since,
+ * 收到304时使用磁盘中的响应体返回200, 没有body传输</li>
+ * <li>解析层({@link ConditionalConverterFactory} 和 {@link Http#transformerBean(Type)} 等)
+ * 遇到304的响应体时, 直接返回上次解析的对象, 不会再次解析</li>
+ * </ul>
+ * 响应体和校验信息保存在 {@link DiskLruCache} 中, 总大小超过 {@link #MAX_SIZE} 时移除最久未使用的,
+ * 进程重启后仍然有效; 响应体在使用者读取的同时写入磁盘, 读完才算保存成功.
+ * 解析后的对象只保存在内存中, 最多 {@link #MAX_DECODED_COUNT} 个, 重启后的第一次304会从磁盘读取并解析一次.
+ * 缓存的key为url加上 {@link SingleFlightInterceptor#KEY_HEADERS} 中的请求头, 不同账号不会共用.
+ * 解析后的对象会被多次请求共享, 不要修改它.
+ * <p>
+ * 同时启用了 {@link HttpCache} 时, 由 {@link okhttp3.Cache} 负责保存响应体和发送校验请求,
+ * 这里只标记来自缓存或者304的响应体, 用于跳过解析, 响应体不会保存两份.
+ * <p>
+ * 标记保存在 {@link MarkedBody} 中. Retrofit传给解析层的是包装后的 {@link ResponseBody}, 只有Content-Type是同一个对象,
+ * 所以每个标记的响应体使用一个新的 {@link MediaType} 实例(内容和服务端返回的一致), 按实例查找标记.
+ * 服务端没有返回Content-Type时, 只有直接拿到 {@link MarkedBody} 的地方能识别标记.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class ConditionalCache {
+
+    /**
+     * 超过此大小的响应体不缓存
+     */
+    public static long MAX_BODY_BYTES = 512 * 1024;
+    /**
+     * 磁盘缓存的最大字节数, 在 {@link #init(File)} 之前设置
+     */
+    public static long MAX_SIZE = 10 * 1024 * 1024;
+    /**
+     * 内存中最多保存的解析后的对象数量, 超过后移除最久未使用的
+     */
+    public static int MAX_DECODED_COUNT = 32;
+
+    /**
+     * 内存中最多保存的标记数量, 标记在响应体解析之前使用, 不需要太多
+     */
+    private static final int MAX_MARK_COUNT = 64;
+
+    private static final int APP_VERSION = 1;
+    private static final int INDEX_META = 0;
+    private static final int INDEX_BODY = 1;
+
+    /**
+     * 使用者关闭响应体时, 最多等待这么久读完剩下的内容, 读不完不保存
+     */
+    private static final int DISCARD_TIMEOUT_MS = 100;
+
+    private static volatile DiskLruCache diskCache;
+
+    /**
+     * key为 {@link #key(Request)}, 值为最后一次解析的对象, 按访问顺序排列
+     */
+    private static final LinkedHashMap<String, Decoded> decodedMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * key为 {@link MarkedBody#contentType()} 的实例, 按访问顺序排列
+     */
+    private static final LinkedHashMap<Identity, Mark> markMap = new LinkedHashMap<>(16, 0.75f, true);
+
+    static final AtomicLong requestCount = new AtomicLong();
+    static final AtomicLong notModifiedCount = new AtomicLong();
+    static final AtomicLong storeCount = new AtomicLong();
+    static final AtomicLong decodeSkipCount = new AtomicLong();
+
+    private ConditionalCache() {
+    }
+
+    /**
+     * @param dir 缓存目录, 比如 new File(context.getCacheDir(), "conditional"), 不要和其他缓存共用
+     */
+    public static void init(@NonNull File dir) {
+        DiskLruCache old = diskCache;
+        diskCache = DiskLruCache.create(FileSystem.SYSTEM, dir, APP_VERSION, 2, MAX_SIZE);
+        closeQuietly(old);
+    }
+
+    static boolean isEnable() {
+        return diskCache != null;
+    }
+
+    /**
+     * 删除磁盘和内存中的所有缓存
+     */
+    public static void clear() {
+        synchronized (decodedMap) {
+            decodedMap.clear();
+        }
+        synchronized (markMap) {
+            markMap.clear();
+        }
+        DiskLruCache cache = diskCache;
+        if (cache != null) {
+            try {
+                cache.evictAll();
+            } catch (IOException e) {
+                //e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 磁盘缓存当前的字节数
+     */
+    public static long size() {
+        DiskLruCache cache = diskCache;
+        if (cache == null) {
+            return 0;
+        }
+        try {
+            return cache.size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    static String key(Request request) {
+        StringBuilder builder = new StringBuilder(request.url().toString());
+        for (String name : SingleFlightInterceptor.KEY_HEADERS) {
+            String value = request.header(name);
+            if (value != null) {
+                builder.append('\n').append(name).append(':').append(value);
+            }
+        }
+        return ByteString.encodeUtf8(builder.toString()).md5().hex();
+    }
+
+    /**
+     * 返回的 {@link Entry} 持有打开的文件, 需要 {@link Entry#close()} 或者读取 {@link Entry#body()} 之后关闭
+     */
+    @Nullable
+    static Entry read(String key) {
+        DiskLruCache cache = diskCache;
+        if (cache == null) {
+            return null;
+        }
+        DiskLruCache.Snapshot snapshot;
+        try {
+            snapshot = cache.get(key);
+        } catch (IOException e) {
+            return null;
+        }
+        if (snapshot == null) {
+            return null;
+        }
+        try {
+            BufferedSource source = Okio.buffer(snapshot.getSource(INDEX_META));
+            String etag = source.readUtf8LineStrict();
+            String lastModified = source.readUtf8LineStrict();
+            String contentType = source.readUtf8LineStrict();
+            return new Entry(key, snapshot,
+                    etag.isEmpty() ? null : etag,
+                    lastModified.isEmpty() ? null : lastModified,
+                    contentType.isEmpty() ? null : MediaType.parse(contentType));
+        } catch (IOException e) {
+            snapshot.close();
+            remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * 返回一边读取一边写入磁盘的source, 读到末尾时保存; 超过 {@link #MAX_BODY_BYTES}, 出错, 或者没读完就关闭时,
+     * 放弃保存并移除旧的缓存. 同一个key正在写入时返回null
+     */
+    @Nullable
+    static Source store(String key, @Nullable String etag, @Nullable String lastModified,
+                        @Nullable MediaType contentType, Source source) {
+        DiskLruCache cache = diskCache;
+        if (cache == null) {
+            return null;
+        }
+        DiskLruCache.Editor editor = null;
+        try {
+            editor = cache.edit(key);
+            if (editor == null) {
+                return null;
+            }
+            BufferedSink meta = Okio.buffer(editor.newSink(INDEX_META));
+            meta.writeUtf8(etag == null ? "" : etag).writeByte('\n');
+            meta.writeUtf8(lastModified == null ? "" : lastModified).writeByte('\n');
+            meta.writeUtf8(contentType == null ? "" : contentType.toString()).writeByte('\n');
+            meta.close();
+            return new StoreSource(source, key, editor);
+        } catch (IOException e) {
+            abortQuietly(editor);
+            return null;
+        }
+    }
+
+    static void remove(String key) {
+        synchronized (decodedMap) {
+            decodedMap.remove(key);
+        }
+        DiskLruCache cache = diskCache;
+        if (cache != null) {
+            try {
+                cache.remove(key);
+            } catch (IOException e) {
+                //e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 返回304对应的上次解析的对象, 没有时返回null
+     */
+    @Nullable
+    static Object decoded(@Nullable ResponseBody body, @NonNull Type type) {
+        Mark mark = body == null ? null : marked(body);
+        if (mark == null || !mark.notModified) {
+            return null;
+        }
+        Decoded decoded;
+        synchronized (decodedMap) {
+            decoded = decodedMap.get(keyOf(mark.validator));
+        }
+        if (decoded != null && decoded.validator.equals(mark.validator) && decoded.type.equals(type)) {
+            decodeSkipCount.incrementAndGet();
+            return decoded.value;
+        }
+        return null;
+    }
+
+    /**
+     * 记录解析后的对象, 下次304时直接返回
+     */
+    static void remember(@Nullable ResponseBody body, @NonNull Type type, @Nullable Object value) {
+        Mark mark = body == null || value == null ? null : marked(body);
+        if (mark == null) {
+            return;
+        }
+        synchronized (decodedMap) {
+            decodedMap.put(keyOf(mark.validator), new Decoded(mark.validator, type, value));
+            Iterator<String> iterator = decodedMap.keySet().iterator();
+            while (decodedMap.size() > MAX_DECODED_COUNT && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * 创建带标记的响应体
+     *
+     * @param notModified 来自缓存或者304
+     */
+    static ResponseBody mark(@Nullable MediaType contentType, long contentLength, BufferedSource source,
+                             String validator, boolean notModified) {
+        Mark mark = new Mark(validator, notModified);
+        MediaType markType = null;
+        if (contentType != null) {
+            //新的实例, 只用于查找标记
+            markType = MediaType.parse(contentType.toString());
+            synchronized (markMap) {
+                markMap.put(new Identity(markType), mark);
+                Iterator<Identity> iterator = markMap.keySet().iterator();
+                while (markMap.size() > MAX_MARK_COUNT && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+        return new MarkedBody(markType, contentLength, source, mark);
+    }
+
+    @Nullable
+    private static Mark marked(ResponseBody body) {
+        if (body instanceof MarkedBody) {
+            return ((MarkedBody) body).mark;
+        }
+        MediaType contentType = body.contentType();
+        if (contentType == null) {
+            return null;
+        }
+        synchronized (markMap) {
+            return markMap.get(new Identity(contentType));
+        }
+    }
+
+    /**
+     * validator的格式为 key-版本, 版本由ETag和Last-Modified计算
+     */
+    static String validator(Entry entry) {
+        return validator(entry.key, entry.etag, entry.lastModified);
+    }
+
+    static String validator(String key, @Nullable String etag, @Nullable String lastModified) {
+        String version = ByteString.encodeUtf8(etag + "\n" + lastModified).md5().hex();
+        return key + "-" + version.substring(0, 8);
+    }
+
+    private static String keyOf(String validator) {
+        int index = validator.indexOf('-');
+        return index < 0 ? validator : validator.substring(0, index);
+    }
+
+    private static void abortQuietly(@Nullable DiskLruCache.Editor editor) {
+        if (editor != null) {
+            try {
+                editor.abort();
+            } catch (IOException e) {
+                //e.printStackTrace();
+            }
+        }
+    }
+
+    static void closeQuietly(@Nullable Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                //e.printStackTrace();
+            }
+        }
+    }
+
+    public static Stats stats() {
+        return new Stats(requestCount.get(), notModifiedCount.get(), storeCount.get(), decodeSkipCount.get());
+    }
+
+    public static class Stats {
+        /**
+         * 带上校验头的请求次数
+         */
+        public final long requestCount;
+        /**
+         * 收到304的次数
+         */
+        public final long notModifiedCount;
+        /**
+         * 写入磁盘的次数
+         */
+        public final long storeCount;
+        /**
+         * 跳过解析的次数
+         */
+        public final long decodeSkipCount;
+
+        Stats(long requestCount, long notModifiedCount, long storeCount, long decodeSkipCount) {
+            this.requestCount = requestCount;
+            this.notModifiedCount = notModifiedCount;
+            this.storeCount = storeCount;
+            this.decodeSkipCount = decodeSkipCount;
+        }
+
+        @Override
+        public String toString() {
+            return "request:" + requestCount +
+                    " notModified:" + notModifiedCount +
+                    " store:" + storeCount +
+                    " decodeSkip:" + decodeSkipCount;
+        }
+    }
+
+    /**
+     * 磁盘中的一条缓存
+     */
+    static final class Entry implements Closeable {
+        final String key;
+        final DiskLruCache.Snapshot snapshot;
+        final String etag;
+        final String lastModified;
+        final MediaType contentType;
+
+        Entry(String key, DiskLruCache.Snapshot snapshot, String etag, String lastModified, MediaType contentType) {
+            this.key = key;
+            this.snapshot = snapshot;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+        }
+
+        long bodyLength() {
+            return snapshot.getLength(INDEX_BODY);
+        }
+
+        /**
+         * 关闭返回的source时关闭缓存文件
+         */
+        BufferedSource body() {
+            return Okio.buffer(new ForwardingSource(snapshot.getSource(INDEX_BODY)) {
+                @Override
+                public void close() throws IOException {
+                    snapshot.close();
+                    super.close();
+                }
+            });
+        }
+
+        @Override
+        public void close() {
+            snapshot.close();
+        }
+    }
+
+    /**
+     * 读取的同时写入 {@link DiskLruCache}
+     */
+    private static final class StoreSource extends ForwardingSource {
+        final String key;
+        final BufferedSink body;
+        DiskLruCache.Editor editor;
+        long byteCount;
+
+        StoreSource(Source delegate, String key, DiskLruCache.Editor editor) {
+            super(delegate);
+            this.key = key;
+            this.editor = editor;
+            this.body = Okio.buffer(editor.newSink(INDEX_BODY));
+        }
+
+        @Override
+        public long read(Buffer sink, long count) throws IOException {
+            long read;
+            try {
+                read = super.read(sink, count);
+            } catch (IOException e) {
+                abort();
+                throw e;
+            }
+            if (editor == null) {
+                return read;
+            }
+            if (read == -1) {
+                commit();
+                return read;
+            }
+            byteCount += read;
+            if (byteCount > MAX_BODY_BYTES) {
+                abort();
+                return read;
+            }
+            try {
+                sink.copyTo(body.buffer(), sink.size() - read, read);
+                body.emitCompleteSegments();
+            } catch (IOException e) {
+                abort();
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (editor != null && !Util.discard(this, DISCARD_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                abort();
+            }
+            super.close();
+        }
+
+        private void commit() {
+            DiskLruCache.Editor editor = this.editor;
+            this.editor = null;
+            try {
+                body.close();
+                editor.commit();
+                storeCount.incrementAndGet();
+            } catch (IOException e) {
+                abortQuietly(editor);
+                remove(key);
+            }
+        }
+
+        private void abort() {
+            DiskLruCache.Editor editor = this.editor;
+            if (editor == null) {
+                return;
+            }
+            this.editor = null;
+            closeQuietly(body);
+            abortQuietly(editor);
+            //旧的缓存已经过期
+            remove(key);
+        }
+    }
+
+    /**
+     * 响应体的标记
+     */
+    static final class Mark {
+        final String validator;
+        final boolean notModified;
+
+        Mark(String validator, boolean notModified) {
+            this.validator = validator;
+            this.notModified = notModified;
+        }
+    }
+
+    /**
+     * 带标记的响应体
+     */
+    static final class MarkedBody extends ResponseBody {
+        final MediaType contentType;
+        final long contentLength;
+        final BufferedSource source;
+        final Mark mark;
+
+        MarkedBody(@Nullable MediaType contentType, long contentLength, BufferedSource source, Mark mark) {
+            this.contentType = contentType;
+            this.contentLength = contentLength;
+            this.source = source;
+            this.mark = mark;
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+
+    /**
+     * 按实例比较, {@link MediaType#equals(Object)} 比较的是内容
+     */
+    private static final class Identity {
+        final Object value;
+
+        Identity(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Identity && ((Identity) o).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+
+    private static final class Decoded {
+        final String validator;
+        final Type type;
+        final Object value;
+
+        Decoded(String validator, Type type, Object value) {
+            this.validator = validator;
+            this.type = type;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.angcyo.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+/**
+ * 见 {@link ConditionalCache}, 请求中已经带有 If-None-Match/If-Modified-Since, 只允许使用缓存,
+ * 或者是 {@link retrofit2.http.Streaming} 的接口时不做处理.
+ * 启用了 {@link HttpCache} 时, 校验请求由 {@link okhttp3.Cache} 发送, 这里只标记响应体.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class ConditionalCacheInterceptor implements Interceptor {
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!ConditionalCache.isEnable() ||
+                !"GET".equals(request.method()) ||
+                request.cacheControl().onlyIfCached() ||
+                request.header("If-None-Match") != null ||
+                request.header("If-Modified-Since") != null ||
+                SingleFlightInterceptor.isStreaming(request)) {
+            return chain.proceed(request);
+        }
+
+        String key = ConditionalCache.key(request);
+        if (HttpCache.cache() != null) {
+            return markCached(chain.proceed(request), key);
+        }
+
+        ConditionalCache.Entry entry = ConditionalCache.read(key);
+        if (entry != null) {
+            Request.Builder builder = request.newBuilder();
+            if (entry.etag != null) {
+                builder.header("If-None-Match", entry.etag);
+            }
+            if (entry.lastModified != null) {
+                builder.header("If-Modified-Since", entry.lastModified);
+            }
+            request = builder.build();
+            ConditionalCache.requestCount.incrementAndGet();
+        }
+
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException | RuntimeException e) {
+            ConditionalCache.closeQuietly(entry);
+            throw e;
+        }
+        if (entry != null) {
+            if (response.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                ConditionalCache.notModifiedCount.incrementAndGet();
+                closeBody(response);
+                return response.newBuilder()
+                        .code(HttpURLConnection.HTTP_OK)
+                        .message("OK")
+                        .body(ConditionalCache.mark(entry.contentType, entry.bodyLength(), entry.body(),
+                                ConditionalCache.validator(entry), true))
+                        .build();
+            }
+            entry.close();
+        }
+
+        if (!response.isSuccessful()) {
+            return response;
+        }
+
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        if (etag == null && lastModified == null) {
+            if (entry != null) {
+                //服务端不再支持校验
+                ConditionalCache.remove(key);
+            }
+            return response;
+        }
+
+        ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+        if (body.contentLength() > ConditionalCache.MAX_BODY_BYTES) {
+            ConditionalCache.remove(key);
+            return response;
+        }
+        //不提前读取, 使用者读取的同时写入磁盘
+        Source source = ConditionalCache.store(key, etag, lastModified, body.contentType(), body.source());
+        if (source == null) {
+            return response;
+        }
+        return response.newBuilder()
+                .body(ConditionalCache.mark(body.contentType(), body.contentLength(), Okio.buffer(source),
+                        ConditionalCache.validator(key, etag, lastModified), false))
+                .build();
+    }
+    /**
+     * 标记 {@link okhttp3.Cache} 返回的响应, 来自缓存或者304时可以跳过解析
+     */
+    private static Response markCached(Response response, String key) {
+        ResponseBody body = response.body();
+        String etag = response.header("ETag");
+        String lastModified = response.header("Last-Modified");
+        if (body == null || !response.isSuccessful() || (etag == null && lastModified == null)) {
+            return response;
+        }
+        Response networkResponse = response.networkResponse();
+        if (networkResponse != null && (networkResponse.request().header("If-None-Match") != null ||
+                networkResponse.request().header("If-Modified-Since") != null)) {
+            ConditionalCache.requestCount.incrementAndGet();
+        }
+        boolean notModified = false;
+        if (response.cacheResponse() != null) {
+            if (networkResponse == null) {
+                notModified = true;
+            } else if (networkResponse.code() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                ConditionalCache.notModifiedCount.incrementAndGet();
+                notModified = true;
+            }
+        }
+        return response.newBuilder()
+                .body(ConditionalCache.mark(body.contentType(), body.contentLength(), body.source(),
+                        ConditionalCache.validator(key, etag, lastModified), notModified))
+                .build();
+    }
+
+    private static void closeBody(Response response) {
+        ResponseBody body = response.body();
+        if (body != null) {
+            body.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.angcyo.http;
+
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+/**
+ * 包装解析的 {@link Converter.Factory}, 304的响应直接返回上次解析的对象, 见 {@link ConditionalCache}.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class ConditionalConverterFactory extends Converter.Factory {
+
+    private final Converter.Factory delegate;
+
+    private ConditionalConverterFactory(Converter.Factory delegate) {
+        this.delegate = delegate;
+    }
+
+    public static ConditionalConverterFactory create(Converter.Factory delegate) {
+        return new ConditionalConverterFactory(delegate);
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(final Type type, Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        final Converter<ResponseBody, ?> converter = delegate.responseBodyConverter(type, annotations, retrofit);
+        if (converter == null) {
+            return null;
+        }
+        return new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(ResponseBody value) throws IOException {
+                Object decoded = ConditionalCache.decoded(value, type);
+                if (decoded != null) {
+                    value.close();
+                    return decoded;
+                }
+                Object result = converter.convert(value);
+                ConditionalCache.remember(value, type, result);
+                return result;
+            }
+        };
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(Type type, Annotation[] parameterAnnotations,
+                                                          Annotation[] methodAnnotations, Retrofit retrofit) {
+        return delegate.requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+    }
+
+    @Override
+    public Converter<?, String> stringConverter(Type type, Annotation[] annotations, Retrofit retrofit) {
+        return delegate.stringConverter(type, annotations, retrofit);
+    }
+}
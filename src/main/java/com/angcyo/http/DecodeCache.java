@@ -0,0 +1,278 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import okhttp3.ResponseBody;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action1;
+import rx.functions.Func0;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 解析后对象的内存缓存, 按需使用:
+ * <pre>
+ *     Http.create(Api.class).profile(uid)
+ *          .compose(DecodeCache.&lt;Profile&gt;transformer("profile", uid, Profile.class, 60_000, 300_000))
+ * </pre>
+ * 缓存的key为 endpoint + key + 解析的类型.
+ * <ul>
+ * <li>未超过maxAge: 同步发射缓存的对象, 不会订阅上游, 不会发起请求, 也不会解析</li>
+ * <li>超过maxAge但未超过maxAge+maxStale: 同步发射缓存的对象, 同时在后台重新请求并更新缓存</li>
+ * <li>其他: 正常请求和解析, 成功后放入缓存</li>
+ * </ul>
+ * 缓存的对象会被多个订阅者共享, 不要修改它.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class DecodeCache {
+
+    /**
+     * 最多缓存的对象数量, 超过后移除最久未使用的
+     */
+    public static int MAX_SIZE = 64;
+
+    private static final LinkedHashMap<Key, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private static final ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<>();
+
+    private DecodeCache() {
+    }
+
+    public static <T> Observable.Transformer<ResponseBody, T> transformer(@NonNull String endpoint,
+                                                                          @NonNull String key,
+                                                                          @NonNull Type type,
+                                                                          long maxAgeMs,
+                                                                          long maxStaleMs) {
+        final Key cacheKey = new Key(endpoint, key, type);
+        final long maxAge = TimeUnit.MILLISECONDS.toNanos(maxAgeMs);
+        final long maxStale = TimeUnit.MILLISECONDS.toNanos(maxStaleMs);
+        return new Observable.Transformer<ResponseBody, T>() {
+            @Override
+            public Observable<T> call(final Observable<ResponseBody> upstream) {
+                return Observable.defer(new Func0<Observable<T>>() {
+                    @Override
+                    public Observable<T> call() {
+                        Metric metric = metric(cacheKey.endpoint);
+                        Entry entry = get(cacheKey, maxAge + maxStale);
+                        if (entry == null) {
+                            metric.miss.incrementAndGet();
+                            return load(cacheKey, upstream);
+                        }
+                        if (System.nanoTime() - entry.time <= maxAge) {
+                            metric.hit.incrementAndGet();
+                        } else {
+                            metric.stale.incrementAndGet();
+                            revalidate(cacheKey, entry, upstream);
+                        }
+                        return Observable.just((T) entry.value);
+                    }
+                });
+            }
+        };
+    }
+
+    private static <T> Observable<T> load(final Key key, Observable<ResponseBody> upstream) {
+        return upstream
+                .compose(Http.<T>transformerBean(key.type))
+                .doOnNext(new Action1<T>() {
+                    @Override
+                    public void call(T value) {
+                        put(key, value);
+                    }
+                });
+    }
+
+    /**
+     * 后台重新请求, 同一个key同时只会有一个
+     */
+    private static void revalidate(Key key, final Entry entry, Observable<ResponseBody> upstream) {
+        synchronized (cache) {
+            if (entry.revalidating) {
+                return;
+            }
+            entry.revalidating = true;
+        }
+        load(key, upstream).subscribe(new Subscriber<Object>() {
+            @Override
+            public void onCompleted() {
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                //失败时保留旧的值, 下次再试
+                synchronized (cache) {
+                    entry.revalidating = false;
+                }
+            }
+
+            @Override
+            public void onNext(Object o) {
+            }
+        });
+    }
+
+    private static Entry get(Key key, long maxLife) {
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (entry != null && System.nanoTime() - entry.time > maxLife) {
+                cache.remove(key);
+                metric(key.endpoint).eviction.incrementAndGet();
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private static void put(Key key, Object value) {
+        if (value == null) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(key, new Entry(value, System.nanoTime()));
+            Iterator<Map.Entry<Key, Entry>> iterator = cache.entrySet().iterator();
+            while (cache.size() > MAX_SIZE && iterator.hasNext()) {
+                Key eldest = iterator.next().getKey();
+                iterator.remove();
+                metric(eldest.endpoint).eviction.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * 移除endpoint的所有缓存
+     */
+    public static void invalidate(@NonNull String endpoint) {
+        synchronized (cache) {
+            Iterator<Key> iterator = cache.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().endpoint.equals(endpoint)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public static int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static Metric metric(String endpoint) {
+        Metric metric = metrics.get(endpoint);
+        if (metric == null) {
+            metric = new Metric(endpoint);
+            Metric exist = metrics.putIfAbsent(endpoint, metric);
+            if (exist != null) {
+                metric = exist;
+            }
+        }
+        return metric;
+    }
+
+    /**
+     * 每个endpoint的命中统计
+     */
+    public static List<Metric> stats() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    public static void clearStats() {
+        metrics.clear();
+    }
+
+    public static final class Metric {
+        public final String endpoint;
+        /**
+         * 未过期的命中
+         */
+        public final AtomicLong hit = new AtomicLong();
+        /**
+         * 过期但仍在maxStale内的命中, 会在后台重新请求
+         */
+        public final AtomicLong stale = new AtomicLong();
+        public final AtomicLong miss = new AtomicLong();
+        /**
+         * 超过容量或者超过maxStale被移除的数量
+         */
+        public final AtomicLong eviction = new AtomicLong();
+
+        Metric(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public String toString() {
+            return endpoint +
+                    " hit:" + hit.get() +
+                    " stale:" + stale.get() +
+                    " miss:" + miss.get() +
+                    " eviction:" + eviction.get();
+        }
+    }
+
+    private static final class Key {
+        final String endpoint;
+        final String key;
+        final Type type;
+        final int hashCode;
+
+        Key(String endpoint, String key, Type type) {
+            this.endpoint = endpoint;
+            this.key = key;
+            this.type = type;
+            this.hashCode = (endpoint.hashCode() * 31 + key.hashCode()) * 31 + type.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hashCode == other.hashCode &&
+                    endpoint.equals(other.endpoint) &&
+                    key.equals(other.key) &&
+                    type.equals(other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class Entry {
+        final Object value;
+        /**
+         * {@link System#nanoTime()}
+         */
+        final long time;
+        boolean revalidating;
+
+        Entry(Object value, long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+}
@@ -12,7 +12,6 @@ import okhttp3.*;
 import retrofit2.Retrofit;
 import retrofit2.RetrofitServiceMapping;
 import retrofit2.adapter.rxjava.RxJavaCallAdapterFactory;
-import retrofit2.converter.gson.GsonConverterFactory;
 import rx.Observable;
 import rx.android.schedulers.AndroidSchedulers;
 import rx.functions.Func1;
@@ -38,33 +37,64 @@ public class Http {
     public static final String TAG = "HttpResult";
     public static boolean LOG_BODY = BuildConfig.DEBUG;
     public static boolean LOG_INTERCEPTOR_RESPONSE = BuildConfig.DEBUG;
+    /**
+     * 在不需要打印body时, 使用 {@link ResponseBody#charStream()} 直接解析, 避免生成完整的body字符串
+     */
+    public static boolean STREAM_DECODE = true;
+    /**
+     * 合并同时进行中的相同GET请求, 见 {@link SingleFlightInterceptor}
+     */
+    public static boolean SINGLE_FLIGHT = true;
+    /**
+     * 网络状态检查, 为null时认为网络可用, 见 {@link HttpCache}
+     */
+    public static INetworkChecker networkChecker;
+    /**
+     * 解析耗时回调
+     */
+    public static OnDecodeListener decodeListener;
 
+    /**
+     * 相同logTag使用同一个client, 见 {@link HttpClients#client(String)}
+     */
     public static Retrofit.Builder builder(String baseUrl, String logTag) {
-        return builder(defaultOkHttpClick(logTag).build(), baseUrl);
+        return builder(HttpClients.client(logTag), baseUrl);
     }
 
     public static Retrofit.Builder builder(OkHttpClient client, String baseUrl) {
         return new Retrofit.Builder()
                 .baseUrl(baseUrl)
-                .addCallAdapterFactory(RxJavaCallAdapterFactory.create())
-                .addConverterFactory(GsonConverterFactory.create())
+                .addCallAdapterFactory(PriorityCallAdapterFactory.create())
+                .addCallAdapterFactory(RxJavaCallAdapterFactory.createAsync())
+                .addConverterFactory(ConditionalConverterFactory.create(JsonConverterFactory.create()))
                 .client(client)
                 ;
     }
 
+    /**
+     * 从 {@link HttpClients#baseClient()} 派生, 共用连接池和线程池
+     */
     public static OkHttpClient.Builder defaultOkHttpClick(String logTag) {
         HttpLoggingInterceptorM httpLoggingInterceptorM = new HttpLoggingInterceptorM(new LogInterceptor(logTag));
         if (BuildConfig.DEBUG) {
             httpLoggingInterceptorM.setLevel(HttpLoggingInterceptorM.Level.BODY);
         }
         httpLoggingInterceptorM.logResponse = LOG_INTERCEPTOR_RESPONSE;
-        return new OkHttpClient.Builder()
+        return HttpClients.baseClient().newBuilder()
                 .connectTimeout(TIME_OUT, TimeUnit.SECONDS)
                 .readTimeout(TIME_OUT, TimeUnit.SECONDS)
                 .writeTimeout(TIME_OUT, TimeUnit.SECONDS)
                 .addNetworkInterceptor(httpLoggingInterceptorM)
                 .addInterceptor(new CopyrightInterceptor())
-                .addNetworkInterceptor(new ProgressIntercept());
+                .addInterceptor(new SingleFlightInterceptor())
+                .addInterceptor(new HttpCacheInterceptor())
+                .addInterceptor(new RetryInterceptor())
+                .addInterceptor(new ConcurrencyLimitInterceptor())
+                .addInterceptor(new CircuitBreakerInterceptor())
+                .addInterceptor(new ConditionalCacheInterceptor())
+                .addNetworkInterceptor(new ProgressIntercept())
+                .addNetworkInterceptor(new HttpCacheInterceptor.Network())
+                .cache(HttpCache.cache());
     }
 
     public static <T> T create(Class<T> service) {
@@ -72,7 +102,7 @@ public class Http {
     }
 
     public static <T> T create(String baseUrl, Class<T> service) {
-        return create(builder(baseUrl, "app->").build(), service);
+        return create(HttpClients.retrofit(baseUrl, "app->"), service);
     }
 
     /**
@@ -90,7 +120,7 @@ public class Http {
             @Override
             public Observable<T> call(Observable<T> tObservable) {
                 return tObservable.unsubscribeOn(Schedulers.io())
-                        .subscribeOn(Schedulers.io())
+                        .subscribeOn(HttpSchedulers.network())
                         .observeOn(AndroidSchedulers.mainThread());
             }
         };
@@ -111,147 +141,231 @@ public class Http {
     }
 
     public static <T> Observable.Transformer<ResponseBody, T> transformerBean(@NonNull final Type type) {
-        return transformerBean(new IConvertJson<T>() {
+        return transformerType(type, null);
+    }
+
+    public static <T> Observable.Transformer<ResponseBody, T> transformerBean(@NonNull final IConvertJson<T> convertJson,
+                                                                              @Nullable final IConvertString convertString) {
+        return decodeTransformer(new Func1<ResponseBody, T>() {
             @Override
-            public T covert(String body) {
-                if (String.class.getName().contains(type.toString())) {
-                    return (T) body;
+            public T call(ResponseBody stringResponse) {
+                String body = null;
+                long startTime = System.nanoTime();
+                try {
+                    body = readBody(stringResponse, convertString);
+                    return convertJson.covert(body);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    throw new HttpException(e, body);
+                } finally {
+                    onDecodeEnd(convertJson.getClass(), startTime, false);
                 }
-                return Json.from(body, type);
             }
-        }, null);
+        });
     }
 
-    public static <T> Observable.Transformer<ResponseBody, T> transformerBean(@NonNull final IConvertJson<T> convertJson,
-                                                                              @Nullable final IConvertString convertString) {
+    public static <T> Observable.Transformer<ResponseBody, T> transformerBean(@NonNull final Class<T> type,
+                                                                              @Nullable final IConvertString convert) {
+        return transformerType(type, convert);
+    }
+
+    /**
+     * ResponseBody->List<T> 转换
+     */
+    public static <T> Observable.Transformer<ResponseBody, List<T>> transformerListBean(@NonNull final Class<T> type,
+                                                                                        @Nullable final IConvertString convert) {
+        return transformerType(TypeBuilder.listOf(type), convert);
+    }
+
+    public static <T> Observable.Transformer<ResponseBody, List<T>> transformerListBean(@NonNull final Class<T> type) {
+        return transformerListBean(type, null);
+    }
+
+    /**
+     * ResponseBody->T 逐个转换, body需要是json数组, 每解析完一个元素就发射一个, 支持背压.
+     * <p>
+     * 接口方法请添加 {@link retrofit2.http.Streaming} 注解, 否则Retrofit会先把body全部读入内存, 再开始解析.
+     * 解析时主要在等待网络读取, 所以在 {@link HttpSchedulers#network()} 执行, 不占用按CPU核数设置的解析线程.
+     */
+    public static <T> Observable.Transformer<ResponseBody, T> transformerStreamBean(@NonNull final Class<T> type) {
         return new Observable.Transformer<ResponseBody, T>() {
 
             @Override
             public Observable<T> call(Observable<ResponseBody> responseObservable) {
                 return responseObservable
-                        .compose(Http.<ResponseBody>defaultTransformer())
-                        .map(new Func1<ResponseBody, T>() {
+                        .unsubscribeOn(Schedulers.io())
+                        .subscribeOn(HttpSchedulers.network())
+                        .concatMap(new Func1<ResponseBody, Observable<T>>() {
                             @Override
-                            public T call(ResponseBody stringResponse) {
-                                String body = null;
-                                try {
-                                    body = stringResponse.string();
-
-                                    //"接口返回数据-->\n" +
-                                    logJson(TAG, body);
-
-                                    if (convertString != null) {
-                                        String covert = convertString.covert(body);
-                                        if (TextUtils.equals(covert, body)) {
-                                            LogUtil.i("IConvertString 转换前后一致");
-                                        } else {
-                                            logJson("转换后", covert);
-                                        }
-                                        body = covert;
-                                    }
-
-                                    return convertJson.covert(body);
-                                } catch (Exception e) {
-                                    e.printStackTrace();
-                                    throw new HttpException(e, body);
-                                }
+                            public Observable<T> call(ResponseBody responseBody) {
+                                //背压的request可能来自主线程, subscribeOn保证读取始终在网络线程
+                                return Json.<T>stream(responseBody.charStream(), type)
+                                        .subscribeOn(HttpSchedulers.network());
                             }
-                        });
+                        })
+                        .observeOn(AndroidSchedulers.mainThread());
             }
         };
     }
 
-    public static <T> Observable.Transformer<ResponseBody, T> transformerBean(@NonNull final Class<T> type,
-                                                                              @Nullable final IConvertString convert) {
-        return new Observable.Transformer<ResponseBody, T>() {
+    /**
+     * ResponseBody->List<T> 分批转换, 每解析完batchSize个元素发射一次
+     */
+    public static <T> Observable.Transformer<ResponseBody, List<T>> transformerStreamListBean(@NonNull final Class<T> type,
+                                                                                              final int batchSize) {
+        return new Observable.Transformer<ResponseBody, List<T>>() {
 
             @Override
-            public Observable<T> call(Observable<ResponseBody> responseObservable) {
+            public Observable<List<T>> call(Observable<ResponseBody> responseObservable) {
                 return responseObservable
-                        .compose(Http.<ResponseBody>defaultTransformer())
-                        .map(new Func1<ResponseBody, T>() {
+                        .unsubscribeOn(Schedulers.io())
+                        .subscribeOn(HttpSchedulers.network())
+                        .concatMap(new Func1<ResponseBody, Observable<List<T>>>() {
                             @Override
-                            public T call(ResponseBody stringResponse) {
-                                T bean;
-                                String body = null;
-                                try {
-                                    body = stringResponse.string();
-
-                                    //"接口返回数据-->\n" +
-                                    logJson(TAG, body);
-
-                                    if (convert != null) {
-                                        String covert = convert.covert(body);
-                                        if (TextUtils.equals(covert, body)) {
-                                            LogUtil.i("IConvertString 转换前后一致");
-                                        } else {
-                                            logJson("转换后", covert);
-                                        }
-                                        body = covert;
-                                    }
-
-                                    if (type.isAssignableFrom(String.class)) {
-                                        return (T) body;
-                                    }
-
-                                    bean = Json.from(body, type);
-                                    return bean;
-                                } catch (Exception e) {
-                                    e.printStackTrace();
-                                    throw new HttpException(e, body);
-                                }
+                            public Observable<List<T>> call(ResponseBody responseBody) {
+                                return Json.<T>stream(responseBody.charStream(), type)
+                                        .buffer(batchSize)
+                                        .subscribeOn(HttpSchedulers.network());
                             }
-                        });
+                        })
+                        .observeOn(AndroidSchedulers.mainThread());
             }
         };
     }
 
     /**
-     * ResponseBody->List<T> 转换
+     * ResponseBody->{@link JsonProjection.Result}, 只解析需要的字段
      */
-    public static <T> Observable.Transformer<ResponseBody, List<T>> transformerListBean(@NonNull final Class<T> type,
-                                                                                        @Nullable final IConvertString convert) {
-        return new Observable.Transformer<ResponseBody, List<T>>() {
+    public static Observable.Transformer<ResponseBody, JsonProjection.Result> transformerProjection(@NonNull final JsonProjection projection) {
+        return decodeTransformer(new Func1<ResponseBody, JsonProjection.Result>() {
+            @Override
+            public JsonProjection.Result call(ResponseBody responseBody) {
+                long startTime = System.nanoTime();
+                try {
+                    return projection.read(responseBody.charStream());
+                } catch (Exception e) {
+                    e.printStackTrace();
+                    throw new HttpException(e, null);
+                } finally {
+                    responseBody.close();
+                    onDecodeEnd(JsonProjection.Result.class, startTime, true);
+                }
+            }
+        });
+    }
 
+    private static <T> Observable.Transformer<ResponseBody, T> transformerType(@NonNull final Type type,
+                                                                               @Nullable final IConvertString convert) {
+        return decodeTransformer(new Func1<ResponseBody, T>() {
             @Override
-            public Observable<List<T>> call(Observable<ResponseBody> responseObservable) {
+            public T call(ResponseBody responseBody) {
+                return decode(responseBody, type, convert);
+            }
+        });
+    }
+
+    /**
+     * 请求在OkHttp的Dispatcher线程执行, 解析在 {@link HttpSchedulers#decode()} 执行, 只有结果回到主线程.
+     */
+    public static <T> Observable.Transformer<ResponseBody, T> decodeTransformer(@NonNull final Func1<ResponseBody, T> decode) {
+        return new Observable.Transformer<ResponseBody, T>() {
+
+            @Override
+            public Observable<T> call(Observable<ResponseBody> responseObservable) {
                 return responseObservable
-                        .compose(Http.<ResponseBody>defaultTransformer())
-                        .map(new Func1<ResponseBody, List<T>>() {
+                        .unsubscribeOn(Schedulers.io())
+                        .subscribeOn(HttpSchedulers.network())
+                        .observeOn(HttpSchedulers.decode())
+                        .map(new Func1<ResponseBody, T>() {
                             @Override
-                            public List<T> call(ResponseBody stringResponse) {
-                                List<T> list;
-                                String body = null;
-                                try {
-                                    body = stringResponse.string();
-
-                                    //"接口返回数据-->\n" +
-                                    logJson(TAG, body);
-
-                                    if (convert != null) {
-                                        String covert = convert.covert(body);
-                                        if (TextUtils.equals(covert, body)) {
-                                            LogUtil.i("IConvertString 转换前后一致");
-                                        } else {
-                                            logJson("转换后", covert);
-                                        }
-                                        body = covert;
-                                    }
-
-                                    list = Json.from(body, TypeBuilder.newInstance(List.class).addTypeParam(type).build());
-                                    return list;
-                                } catch (Exception e) {
-                                    e.printStackTrace();
-                                    throw new HttpException(e, body);
-                                }
+                            public T call(ResponseBody responseBody) {
+                                return decode.call(responseBody);
                             }
-                        });
+                        })
+                        .observeOn(AndroidSchedulers.mainThread());
             }
         };
     }
 
-    public static <T> Observable.Transformer<ResponseBody, List<T>> transformerListBean(@NonNull final Class<T> type) {
-        return transformerListBean(type, null);
+    /**
+     * ResponseBody->T, 不需要打印body也不需要 {@link IConvertString} 时, 直接从流中解析.
+     */
+    static <T> T decode(@NonNull ResponseBody responseBody, @NonNull Type type, @Nullable IConvertString convert) {
+        String body = null;
+        long startTime = System.nanoTime();
+        boolean isString = type instanceof Class && ((Class) type).isAssignableFrom(String.class);
+        boolean isStream = STREAM_DECODE && !LOG_BODY && convert == null && !isString;
+        if (convert == null && !isString) {
+            //304, 直接使用上次解析的对象
+            Object decoded = ConditionalCache.decoded(responseBody, type);
+            if (decoded != null) {
+                responseBody.close();
+                return (T) decoded;
+            }
+        }
+        try {
+            T result;
+            if (isStream) {
+                try {
+                    result = Json.from(responseBody.charStream(), type);
+                } finally {
+                    responseBody.close();
+                }
+            } else {
+                body = readBody(responseBody, convert);
+                if (isString) {
+                    return (T) body;
+                }
+                result = Json.from(body, type);
+            }
+            if (convert == null) {
+                ConditionalCache.remember(responseBody, type, result);
+            }
+            return result;
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new HttpException(e, body);
+        } finally {
+            onDecodeEnd(type, startTime, isStream);
+        }
+    }
+
+    /**
+     * 记录解析耗时和所在线程
+     */
+    private static void onDecodeEnd(Type type, long startTime, boolean isStream) {
+        long tookNanos = System.nanoTime() - startTime;
+        long tookMs = TimeUnit.NANOSECONDS.toMillis(tookNanos);
+        HttpMetrics.recordDecode(type, tookNanos);
+        String threadName = Thread.currentThread().getName();
+        if (LOG_BODY) {
+            LogUtil.i(TAG, "解析:" + type + " 耗时:" + tookMs + "ms 线程:" + threadName + (isStream ? " stream" : ""));
+        }
+        OnDecodeListener listener = decodeListener;
+        if (listener != null) {
+            listener.onDecode(type, tookMs, threadName, isStream);
+        }
+    }
+
+    /**
+     * 读取body字符串, 并打印和转换
+     */
+    private static String readBody(@NonNull ResponseBody responseBody, @Nullable IConvertString convert) throws IOException {
+        String body = responseBody.string();
+
+        //"接口返回数据-->\n" +
+        logJson(TAG, body);
+
+        if (convert != null) {
+            String covert = convert.covert(body);
+            if (TextUtils.equals(covert, body)) {
+                LogUtil.i("IConvertString 转换前后一致");
+            } else {
+                logJson("转换后", covert);
+            }
+            body = covert;
+        }
+        return body;
     }
 
     private static void logJson(String tag, String jsonFormat) {
@@ -269,6 +383,25 @@ public class Http {
         T covert(String body);
     }
 
+    /**
+     * 每次解析完成后回调, 在解析线程执行
+     */
+    public interface OnDecodeListener {
+        void onDecode(Type type, long tookMs, String threadName, boolean isStream);
+    }
+
+    /**
+     * 比如使用 ConnectivityManager 判断
+     */
+    public interface INetworkChecker {
+        boolean isNetworkAvailable();
+    }
+
+    static boolean isNetworkAvailable() {
+        INetworkChecker checker = networkChecker;
+        return checker == null || checker.isNetworkAvailable();
+    }
+
     public static String mapJson(String... args) {
         return Json.to(map(args));
     }
@@ -336,6 +469,20 @@ public class Http {
         }
     }
 
+    /**
+     * 和 getJsonBody(mapJson(args)) 的结果一致, 但是参数直接写入请求体, 不会创建中间的Map和json字符串
+     */
+    public static RequestBody jsonBody(String... args) {
+        return ParamsRequestBody.json(args);
+    }
+
+    /**
+     * 表单形式的参数, 规则和 {@link #map(String...)} 一致
+     */
+    public static RequestBody formBody(String... args) {
+        return ParamsRequestBody.form(args);
+    }
+
     public static RequestBody getJsonBody(String json) {
         return RequestBody.create(MediaType.parse("application/json; charset=utf-8"), json);
     }
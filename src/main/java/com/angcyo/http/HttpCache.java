@@ -0,0 +1,264 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import okhttp3.Cache;
+import okhttp3.CacheControl;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Http#defaultOkHttpClick(String)} 使用的磁盘缓存, 调用 {@link #init(File, long)} 之后生效.
+ * <p>
+ * 基于 {@link Cache}, 超过容量时按LRU淘汰. 每个接口可以通过 {@link #policy(String, Policy)} 单独配置:
+ * <ul>
+ * <li>maxAge: 覆盖服务端的Cache-Control, 让没有缓存头的接口也能被缓存</li>
+ * <li>maxStale: 无网络({@link Http#networkChecker})或者网络请求失败时, 可以使用的过期缓存的时长,
+ * 没有可用的缓存时, 无网络抛出 {@link NonetIOException}, 请求失败抛出原始的异常</li>
+ * <li>staleWhileRevalidate: 缓存过期但在maxStale内时, 先返回缓存, 同时在后台重新请求更新缓存</li>
+ * </ul>
+ * 只处理GET请求.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class HttpCache {
+
+    /**
+     * 没有单独配置的接口使用的策略: 遵循服务端的缓存头, 离线时可以使用7天内的缓存
+     */
+    public static Policy DEFAULT_POLICY = new Policy(0, (int) TimeUnit.DAYS.toSeconds(7), false);
+
+    private static final Map<String, Policy> policies = new ConcurrentHashMap<>();
+    private static final Set<String> revalidating =
+            Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private static volatile Cache cache;
+    private static volatile OkHttpClient revalidateClient;
+
+    static final AtomicLong bytesFromCache = new AtomicLong();
+    static final AtomicLong cacheServedCount = new AtomicLong();
+    static final AtomicLong offlineCount = new AtomicLong();
+    static final AtomicLong fallbackCount = new AtomicLong();
+    static final AtomicLong revalidateCount = new AtomicLong();
+
+    private HttpCache() {
+    }
+
+    /**
+     * @param dir      缓存目录, 比如 new File(context.getCacheDir(), "http")
+     * @param maxBytes 缓存的最大字节数
+     */
+    public static synchronized void init(@NonNull File dir, long maxBytes) {
+        cache = new Cache(dir, maxBytes);
+        revalidateClient = null;
+        //已经创建的client没有缓存
+        HttpClients.clear();
+    }
+
+    @Nullable
+    public static Cache cache() {
+        return cache;
+    }
+
+    /**
+     * 只读取缓存, 不会访问网络的请求, 见 {@link CacheControl#onlyIfCached()}
+     */
+    static boolean isCacheOnly(Request request) {
+        return request.cacheControl().onlyIfCached();
+    }
+
+    /**
+     * @param endpoint url路径的结尾, 比如 app_flow/config.json
+     */
+    public static void policy(@NonNull String endpoint, @NonNull Policy policy) {
+        policies.put(endpoint, policy);
+    }
+
+    @NonNull
+    static Policy policyOf(HttpUrl url) {
+        String path = url.encodedPath();
+        for (Map.Entry<String, Policy> entry : policies.entrySet()) {
+            if (path.endsWith(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return DEFAULT_POLICY;
+    }
+
+    /**
+     * 后台重新请求, 同一个url同时只会有一个. 使用不带应用拦截器的client, 结果只用来更新缓存.
+     */
+    static void revalidate(Request request) {
+        final String url = request.url().toString();
+        if (!revalidating.add(url)) {
+            return;
+        }
+        revalidateCount.incrementAndGet();
+        revalidateClient().newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                revalidating.remove(url);
+            }
+
+            @Override
+            public void onResponse(@NonNull Call call, @NonNull Response response) {
+                //需要读完body, 缓存才会写入
+                ResponseBody body = response.body();
+                try {
+                    if (body != null) {
+                        BufferedSource source = body.source();
+                        Buffer buffer = new Buffer();
+                        while (source.read(buffer, 8192) != -1) {
+                            buffer.clear();
+                        }
+                    }
+                } catch (IOException e) {
+                    //e.printStackTrace();
+                } finally {
+                    if (body != null) {
+                        body.close();
+                    }
+                    revalidating.remove(url);
+                }
+            }
+        });
+    }
+
+    private static OkHttpClient revalidateClient() {
+        if (revalidateClient == null) {
+            synchronized (HttpCache.class) {
+                if (revalidateClient == null) {
+                    revalidateClient = HttpClients.baseClient().newBuilder()
+                            .cache(cache)
+                            .addNetworkInterceptor(new HttpCacheInterceptor.Network())
+                            .build();
+                }
+            }
+        }
+        return revalidateClient;
+    }
+
+    public static Stats stats() {
+        Cache cache = HttpCache.cache;
+        long size = 0;
+        if (cache != null) {
+            try {
+                size = cache.size();
+            } catch (IOException e) {
+                //e.printStackTrace();
+            }
+        }
+        return new Stats(cache == null ? 0 : cache.requestCount(),
+                cache == null ? 0 : cache.hitCount(),
+                cache == null ? 0 : cache.networkCount(),
+                size,
+                cache == null ? 0 : cache.maxSize(),
+                cacheServedCount.get(),
+                bytesFromCache.get(),
+                offlineCount.get(),
+                fallbackCount.get(),
+                revalidateCount.get());
+    }
+
+    public static final class Policy {
+        /**
+         * 缓存的有效期(秒), 大于0时覆盖服务端的Cache-Control
+         */
+        public final int maxAge;
+        /**
+         * 离线或者请求失败时, 可以使用的过期缓存的时长(秒)
+         */
+        public final int maxStale;
+        /**
+         * 缓存过期但在maxStale内时, 先返回缓存, 后台重新请求
+         */
+        public final boolean staleWhileRevalidate;
+
+        public Policy(int maxAge, int maxStale, boolean staleWhileRevalidate) {
+            this.maxAge = maxAge;
+            this.maxStale = maxStale;
+            this.staleWhileRevalidate = staleWhileRevalidate;
+        }
+    }
+
+    public static class Stats {
+        /**
+         * {@link Cache} 的统计
+         */
+        public final int requestCount;
+        public final int hitCount;
+        public final int networkCount;
+        /**
+         * 磁盘占用的字节数
+         */
+        public final long size;
+        public final long maxSize;
+        /**
+         * 响应体来自缓存的次数(包括304)
+         */
+        public final long cacheServedCount;
+        /**
+         * 从缓存读取的响应体字节数
+         */
+        public final long bytesFromCache;
+        /**
+         * 无网络时使用缓存的次数
+         */
+        public final long offlineCount;
+        /**
+         * 网络请求失败后使用过期缓存的次数
+         */
+        public final long fallbackCount;
+        /**
+         * 后台重新请求的次数
+         */
+        public final long revalidateCount;
+
+        Stats(int requestCount, int hitCount, int networkCount, long size, long maxSize,
+              long cacheServedCount, long bytesFromCache, long offlineCount, long fallbackCount,
+              long revalidateCount) {
+            this.requestCount = requestCount;
+            this.hitCount = hitCount;
+            this.networkCount = networkCount;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.cacheServedCount = cacheServedCount;
+            this.bytesFromCache = bytesFromCache;
+            this.offlineCount = offlineCount;
+            this.fallbackCount = fallbackCount;
+            this.revalidateCount = revalidateCount;
+        }
+
+        @Override
+        public String toString() {
+            return "request:" + requestCount +
+                    " hit:" + hitCount +
+                    " network:" + networkCount +
+                    " size:" + size + "/" + maxSize +
+                    " served:" + cacheServedCount +
+                    " bytes:" + bytesFromCache +
+                    " offline:" + offlineCount +
+                    " fallback:" + fallbackCount +
+                    " revalidate:" + revalidateCount;
+        }
+    }
+}
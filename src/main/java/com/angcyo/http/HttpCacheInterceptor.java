@@ -0,0 +1,155 @@
+package com.angcyo.http;
+
+import okhttp3.CacheControl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 离线优先的缓存策略, 见 {@link HttpCache}.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class HttpCacheInterceptor implements Interceptor {
+
+    /**
+     * 没有可用缓存时, {@link CacheControl#onlyIfCached()} 的请求返回504
+     */
+    private static final int HTTP_UNSATISFIABLE = 504;
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (HttpCache.cache() == null || !"GET".equals(request.method()) || request.cacheControl().noCache()) {
+            return chain.proceed(request);
+        }
+
+        HttpCache.Policy policy = HttpCache.policyOf(request.url());
+        if (!Http.isNetworkAvailable()) {
+            Response response = chain.proceed(cacheOnly(request, policy));
+            if (response.code() == HTTP_UNSATISFIABLE) {
+                closeBody(response);
+                throw new NonetIOException();
+            }
+            HttpCache.offlineCount.incrementAndGet();
+            return countCache(response);
+        }
+
+        if (policy.staleWhileRevalidate) {
+            Response response = chain.proceed(cacheOnly(request, policy));
+            if (response.code() != HTTP_UNSATISFIABLE) {
+                if (isStale(response)) {
+                    HttpCache.revalidate(request);
+                }
+                return countCache(response);
+            }
+            closeBody(response);
+        }
+
+        try {
+            return countCache(chain.proceed(request));
+        } catch (IOException e) {
+            if (chain.call().isCanceled() || policy.maxStale <= 0) {
+                throw e;
+            }
+            Response response = chain.proceed(cacheOnly(request, policy));
+            if (response.code() == HTTP_UNSATISFIABLE) {
+                closeBody(response);
+                throw e;
+            }
+            HttpCache.fallbackCount.incrementAndGet();
+            return countCache(response);
+        }
+    }
+
+    /**
+     * 只读缓存的请求, 后面的重试, 熔断和限流拦截器会直接放行
+     */
+    private static Request cacheOnly(Request request, HttpCache.Policy policy) {
+        return request.newBuilder()
+                .cacheControl(new CacheControl.Builder()
+                        .onlyIfCached()
+                        .maxStale(Math.max(0, policy.maxStale), TimeUnit.SECONDS)
+                        .build())
+                .build();
+    }
+
+    /**
+     * {@link okhttp3.Cache} 返回过期的响应时, 会添加 Warning: 110
+     */
+    private static boolean isStale(Response response) {
+        for (String warning : response.headers("Warning")) {
+            if (warning.startsWith("110")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 响应体来自缓存时, 统计读取的字节数
+     */
+    private static Response countCache(Response response) {
+        Response networkResponse = response.networkResponse();
+        ResponseBody body = response.body();
+        if (body == null || response.cacheResponse() == null ||
+                (networkResponse != null && networkResponse.code() != HttpURLConnection.HTTP_NOT_MODIFIED)) {
+            return response;
+        }
+        HttpCache.cacheServedCount.incrementAndGet();
+        ForwardingSource source = new ForwardingSource(body.source()) {
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                long read = super.read(sink, byteCount);
+                if (read > 0) {
+                    HttpCache.bytesFromCache.addAndGet(read);
+                }
+                return read;
+            }
+        };
+        return response.newBuilder()
+                .body(ResponseBody.create(body.contentType(), body.contentLength(), Okio.buffer(source)))
+                .build();
+    }
+
+    private static void closeBody(Response response) {
+        ResponseBody body = response.body();
+        if (body != null) {
+            body.close();
+        }
+    }
+
+    /**
+     * 网络拦截器, 为配置了maxAge的接口改写响应的Cache-Control, 让 {@link okhttp3.Cache} 可以缓存它
+     */
+    public static class Network implements Interceptor {
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            Request request = chain.request();
+            Response response = chain.proceed(request);
+            if (HttpCache.cache() == null || !"GET".equals(request.method()) || !response.isSuccessful()) {
+                return response;
+            }
+            HttpCache.Policy policy = HttpCache.policyOf(request.url());
+            if (policy.maxAge <= 0) {
+                return response;
+            }
+            return response.newBuilder()
+                    .removeHeader("Pragma")
+                    .header("Cache-Control", "public, max-age=" + policy.maxAge)
+                    .build();
+        }
+    }
+}
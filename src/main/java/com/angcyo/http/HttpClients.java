@@ -0,0 +1,177 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import retrofit2.Retrofit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link OkHttpClient} 和 {@link Retrofit} 的缓存池.
+ * <p>
+ * 所有通过 {@link Http#defaultOkHttpClick(String)} 创建的client, 都从同一个 {@link #baseClient()} 通过
+ * {@link OkHttpClient#newBuilder()} 派生, 共用同一个 {@link ConnectionPool} 和 {@link Dispatcher}.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class HttpClients {
+
+    private static final Map<String, OkHttpClient> clientCache = new ConcurrentHashMap<>();
+    private static final Map<String, Retrofit> retrofitCache = new ConcurrentHashMap<>();
+
+    private static volatile OkHttpClient baseClient;
+
+    /**
+     * 共享连接池和线程池的根client, 不包含任何拦截器
+     */
+    public static OkHttpClient baseClient() {
+        if (baseClient == null) {
+            synchronized (HttpClients.class) {
+                if (baseClient == null) {
+                    //每个host的并发由ConcurrencyLimiter控制, Dispatcher只做上限.
+                    //Retrofit的请求通过enqueue在这里执行, 一个host最多占用一半的线程, 不会饿死其他host
+                    Dispatcher dispatcher = new Dispatcher();
+                    dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), ConcurrencyLimiter.MAX_LIMIT * 2));
+                    dispatcher.setMaxRequestsPerHost(ConcurrencyLimiter.MAX_LIMIT);
+                    baseClient = new OkHttpClient.Builder()
+                            .connectionPool(new ConnectionPool())
+                            .dispatcher(dispatcher)
+                            .eventListenerFactory(HttpEventListener.FACTORY)
+                            .build();
+                }
+            }
+        }
+        return baseClient;
+    }
+
+    /**
+     * 相同配置的client只会创建一次
+     */
+    public static OkHttpClient client(@NonNull String logTag) {
+        String key = configKey(logTag);
+        OkHttpClient client = clientCache.get(key);
+        if (client == null) {
+            synchronized (clientCache) {
+                client = clientCache.get(key);
+                if (client == null) {
+                    client = Http.defaultOkHttpClick(logTag).build();
+                    clientCache.put(key, client);
+                }
+            }
+        }
+        return client;
+    }
+
+    /**
+     * 相同baseUrl和配置的Retrofit只会创建一次
+     */
+    public static Retrofit retrofit(@NonNull String baseUrl, @NonNull String logTag) {
+        String key = baseUrl + "|" + configKey(logTag);
+        Retrofit retrofit = retrofitCache.get(key);
+        if (retrofit == null) {
+            synchronized (retrofitCache) {
+                retrofit = retrofitCache.get(key);
+                if (retrofit == null) {
+                    retrofit = Http.builder(client(logTag), baseUrl).build();
+                    retrofitCache.put(key, retrofit);
+                }
+            }
+        }
+        return retrofit;
+    }
+
+    /**
+     * 丢弃已缓存的client和Retrofit, 连接池和线程池会继续共用.
+     * {@link #configKey(String)} 中的配置修改后会自动创建新的client, 不需要调用;
+     * 修改 {@link Http#defaultOkHttpClick(String)} 的其他行为(比如自定义拦截器)之后需要调用.
+     */
+    public static void clear() {
+        synchronized (clientCache) {
+            clientCache.clear();
+        }
+        synchronized (retrofitCache) {
+            retrofitCache.clear();
+        }
+    }
+
+    /**
+     * 影响client创建的配置项, 都需要加入key: {@link Http#defaultOkHttpClick(String)} 创建时读取的
+     * {@link Http#TIME_OUT}, {@link Http#LOG_INTERCEPTOR_RESPONSE} 和 {@link HttpCache#cache()}.
+     * <p>
+     * {@link Http#SINGLE_FLIGHT}, {@link Http#networkChecker}, {@link Http#STREAM_DECODE},
+     * {@link ConcurrencyLimiter#ENABLE}, {@link CircuitBreaker#ENABLE}, {@link Retry} 和 {@link ConditionalCache}
+     * 的配置在每次请求时读取, 修改后立即生效, 不影响client.
+     * {@link ConcurrencyLimiter#MAX_LIMIT} 只在创建 {@link #baseClient()} 时读取一次.
+     */
+    private static String configKey(String logTag) {
+        return logTag + "|" + Http.TIME_OUT + "|" + Http.LOG_INTERCEPTOR_RESPONSE +
+                "|" + System.identityHashCode(HttpCache.cache());
+    }
+
+    public static Stats stats() {
+        OkHttpClient client = baseClient();
+        long acquired = HttpEventListener.connectionAcquired.get();
+        long created = HttpEventListener.connectStart.get() - HttpEventListener.connectFailed.get();
+        return new Stats(clientCache.size(), retrofitCache.size(),
+                client.connectionPool().connectionCount(),
+                client.connectionPool().idleConnectionCount(),
+                acquired,
+                created,
+                Math.max(0, acquired - created));
+    }
+
+    public static class Stats {
+        /**
+         * 缓存的client数量
+         */
+        public final int clientCount;
+        /**
+         * 缓存的Retrofit数量
+         */
+        public final int retrofitCount;
+        /**
+         * 连接池中的连接数
+         */
+        public final int connectionCount;
+        public final int idleConnectionCount;
+        /**
+         * 获取连接的总次数
+         */
+        public final long acquiredCount;
+        /**
+         * 新建连接的次数
+         */
+        public final long newConnectionCount;
+        /**
+         * 从连接池复用的次数
+         */
+        public final long poolHitCount;
+
+        Stats(int clientCount, int retrofitCount, int connectionCount, int idleConnectionCount,
+              long acquiredCount, long newConnectionCount, long poolHitCount) {
+            this.clientCount = clientCount;
+            this.retrofitCount = retrofitCount;
+            this.connectionCount = connectionCount;
+            this.idleConnectionCount = idleConnectionCount;
+            this.acquiredCount = acquiredCount;
+            this.newConnectionCount = newConnectionCount;
+            this.poolHitCount = poolHitCount;
+        }
+
+        @Override
+        public String toString() {
+            return "client:" + clientCount +
+                    " retrofit:" + retrofitCount +
+                    " connection:" + connectionCount + "(idle:" + idleConnectionCount + ")" +
+                    " acquired:" + acquiredCount +
+                    " new:" + newConnectionCount +
+                    " hit:" + poolHitCount;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.angcyo.http;
+
+import android.support.annotation.Nullable;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 共享 {@link okhttp3.OkHttpClient} 的事件监听, 统计连接复用情况,
+ * 并把每个阶段的耗时记录到 {@link HttpMetrics}
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+class HttpEventListener extends EventListener {
+
+    /**
+     * 所有client共用一个工厂
+     */
+    static final Factory FACTORY = new Factory() {
+        @Override
+        public EventListener create(Call call) {
+            return new HttpEventListener();
+        }
+    };
+
+    /**
+     * 获取到连接的次数(包括复用和新建)
+     */
+    static final AtomicLong connectionAcquired = new AtomicLong();
+    /**
+     * 新建连接的次数(TCP握手)
+     */
+    static final AtomicLong connectStart = new AtomicLong();
+    /**
+     * 建立连接失败的次数
+     */
+    static final AtomicLong connectFailed = new AtomicLong();
+
+    private String endpoint;
+    /**
+     * Retrofit接口方法, 见 {@link ApiLatency}
+     */
+    private Method method;
+    private long callStartTime;
+    private long dnsStartTime;
+    private long connectStartTime;
+    private long secureConnectStartTime;
+    private long requestStartTime;
+    private long requestEndTime;
+    private long responseBodyStartTime;
+
+    @Override
+    public void callStart(Call call) {
+        Request request = call.request();
+        endpoint = request.method() + " " + request.url().encodedPath();
+        method = ApiLatency.method(request);
+        callStartTime = System.nanoTime();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStartTime = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        record(HttpMetrics.PHASE_DNS, dnsStartTime);
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStartTime = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, @Nullable Handshake handshake) {
+        record(HttpMetrics.PHASE_TLS, secureConnectStartTime);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, @Nullable Protocol protocol) {
+        record(HttpMetrics.PHASE_CONNECT, connectStartTime);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStartTime = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEndTime = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEndTime = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        long now = System.nanoTime();
+        if (requestStartTime != 0) {
+            HttpMetrics.record(endpoint, HttpMetrics.PHASE_REQUEST, requestEndTime - requestStartTime);
+            HttpMetrics.record(endpoint, HttpMetrics.PHASE_TTFB, now - requestEndTime);
+            requestStartTime = 0;
+        }
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStartTime = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        record(HttpMetrics.PHASE_RESPONSE_BODY, responseBodyStartTime);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        onCallFinish();
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        onCallFinish();
+    }
+
+    private void onCallFinish() {
+        if (endpoint == null) {
+            return;
+        }
+        long tookNanos = System.nanoTime() - callStartTime;
+        HttpMetrics.record(endpoint, HttpMetrics.PHASE_TOTAL, tookNanos);
+        if (method != null) {
+            ApiLatency.record(method, tookNanos);
+        }
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart.incrementAndGet();
+        connectStartTime = System.nanoTime();
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy,
+                              Protocol protocol, IOException ioe) {
+        connectFailed.incrementAndGet();
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        connectionAcquired.incrementAndGet();
+    }
+
+    /**
+     * 记录从startTime到现在的耗时
+     */
+    private void record(int phase, long startTime) {
+        if (endpoint != null && startTime != 0) {
+            HttpMetrics.record(endpoint, phase, System.nanoTime() - startTime);
+        }
+    }
+}
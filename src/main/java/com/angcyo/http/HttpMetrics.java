@@ -0,0 +1,231 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 每个endpoint每个阶段的耗时直方图, 数据来自 {@link HttpEventListener} 和 {@link Http#decode}.
+ * <p>
+ * 网络阶段的endpoint为 method + url的path, 解析阶段的endpoint为 "decode " + 解析的类型.
+ * endpoint数量超过 {@link #MAX_ENDPOINTS} 之后, 新的endpoint合并到 {@link #OTHER}, 防止path中带id时无限增长.
+ * 解析阶段按Type单独计数, 上限为 {@link #MAX_DECODE_TYPES}, 不占用网络endpoint的数量.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class HttpMetrics {
+
+    public static final int PHASE_DNS = 0;
+    public static final int PHASE_CONNECT = 1;
+    public static final int PHASE_TLS = 2;
+    /**
+     * 写请求头和请求体
+     */
+    public static final int PHASE_REQUEST = 3;
+    /**
+     * 请求写完到读到响应头
+     */
+    public static final int PHASE_TTFB = 4;
+    public static final int PHASE_RESPONSE_BODY = 5;
+    public static final int PHASE_DECODE = 6;
+    /**
+     * callStart到callEnd
+     */
+    public static final int PHASE_TOTAL = 7;
+    static final int PHASE_COUNT = 8;
+
+    public static final String OTHER = "other";
+
+    public static boolean ENABLE = true;
+    public static int MAX_ENDPOINTS = 128;
+    public static int MAX_DECODE_TYPES = 64;
+
+    private static final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    /**
+     * 解析耗时按Type查找, 记录时不需要拼接endpoint名称
+     */
+    private static final ConcurrentHashMap<Type, Endpoint> decodeEndpoints = new ConcurrentHashMap<>();
+    /**
+     * 解析的类型超过 {@link #MAX_DECODE_TYPES} 之后合并到这里
+     */
+    private static final Type DECODE_OTHER = new Type() {
+        @Override
+        public String toString() {
+            return OTHER;
+        }
+    };
+
+    private HttpMetrics() {
+    }
+
+    static void record(@NonNull String endpoint, int phase, long nanos) {
+        if (ENABLE && nanos >= 0) {
+            endpoint(endpoint).record(phase, nanos);
+        }
+    }
+
+    @NonNull
+    static Endpoint endpoint(@NonNull String name) {
+        Endpoint endpoint = endpoints.get(name);
+        if (endpoint == null) {
+            if (endpoints.size() >= MAX_ENDPOINTS && !OTHER.equals(name)) {
+                return endpoint(OTHER);
+            }
+            endpoint = new Endpoint(name);
+            Endpoint exist = endpoints.putIfAbsent(name, endpoint);
+            if (exist != null) {
+                endpoint = exist;
+            }
+        }
+        return endpoint;
+    }
+
+    static void recordDecode(@NonNull Type type, long nanos) {
+        if (ENABLE && nanos >= 0) {
+            decodeEndpoint(type).record(PHASE_DECODE, nanos);
+        }
+    }
+
+    @NonNull
+    static Endpoint decodeEndpoint(@NonNull Type type) {
+        Endpoint endpoint = decodeEndpoints.get(type);
+        if (endpoint == null) {
+            if (decodeEndpoints.size() >= MAX_DECODE_TYPES && type != DECODE_OTHER) {
+                return decodeEndpoint(DECODE_OTHER);
+            }
+            endpoint = new Endpoint("decode " + typeName(type));
+            Endpoint exist = decodeEndpoints.putIfAbsent(type, endpoint);
+            if (exist != null) {
+                endpoint = exist;
+            }
+        }
+        return endpoint;
+    }
+
+    private static String typeName(Type type) {
+        return type instanceof Class ? ((Class) type).getName() : type.toString();
+    }
+
+    /**
+     * @return null 没有记录
+     */
+    public static LatencyHistogram.Snapshot snapshot(@NonNull String endpoint, int phase) {
+        Endpoint e = endpoints.get(endpoint);
+        if (e == null) {
+            for (Endpoint decode : decodeEndpoints.values()) {
+                if (decode.name.equals(endpoint)) {
+                    e = decode;
+                    break;
+                }
+            }
+        }
+        if (e == null) {
+            return null;
+        }
+        LatencyHistogram histogram = e.histograms[phase];
+        return histogram == null ? null : histogram.snapshot();
+    }
+
+    public static List<String> endpoints() {
+        List<String> result = new ArrayList<>(endpoints.keySet());
+        for (Endpoint endpoint : decodeEndpoints.values()) {
+            result.add(endpoint.name);
+        }
+        return result;
+    }
+
+    public static void clear() {
+        endpoints.clear();
+        decodeEndpoints.clear();
+    }
+
+    /**
+     * 所有endpoint的统计, 每个阶段一行
+     */
+    public static String dump() {
+        StringBuilder builder = new StringBuilder();
+        dump(builder, endpoints.values());
+        dump(builder, decodeEndpoints.values());
+        return builder.toString();
+    }
+
+    private static void dump(StringBuilder builder, Collection<Endpoint> endpoints) {
+        for (Endpoint endpoint : endpoints) {
+            for (int phase = 0; phase < PHASE_COUNT; phase++) {
+                LatencyHistogram histogram = endpoint.histograms[phase];
+                if (histogram != null) {
+                    builder.append(endpoint.name).append(' ').append(phaseName(phase)).append(' ')
+                            .append(histogram.snapshot()).append('\n');
+                }
+            }
+        }
+    }
+
+    public static void dump(@NonNull File file) throws IOException {
+        Writer writer = new BufferedWriter(new FileWriter(file));
+        try {
+            writer.write(dump());
+        } finally {
+            writer.close();
+        }
+    }
+
+    public static String phaseName(int phase) {
+        switch (phase) {
+            case PHASE_DNS:
+                return "dns";
+            case PHASE_CONNECT:
+                return "connect";
+            case PHASE_TLS:
+                return "tls";
+            case PHASE_REQUEST:
+                return "request";
+            case PHASE_TTFB:
+                return "ttfb";
+            case PHASE_RESPONSE_BODY:
+                return "body";
+            case PHASE_DECODE:
+                return "decode";
+            default:
+                return "total";
+        }
+    }
+
+    static final class Endpoint {
+        final String name;
+        /**
+         * 用到的阶段才会创建
+         */
+        final LatencyHistogram[] histograms = new LatencyHistogram[PHASE_COUNT];
+
+        Endpoint(String name) {
+            this.name = name;
+        }
+
+        void record(int phase, long nanos) {
+            LatencyHistogram histogram = histograms[phase];
+            if (histogram == null) {
+                synchronized (this) {
+                    histogram = histograms[phase];
+                    if (histogram == null) {
+                        histogram = new LatencyHistogram();
+                        histograms[phase] = histogram;
+                    }
+                }
+            }
+            histogram.record(nanos);
+        }
+    }
+}
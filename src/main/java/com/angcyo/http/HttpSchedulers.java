@@ -0,0 +1,217 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import rx.Scheduler;
+import rx.schedulers.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Http} 使用的调度器, 分为2个固定线程数的通道, 代替无上限的 {@link Schedulers#io()}:
+ * <ul>
+ * <li>{@link #network()}: 发起请求和读取流式的响应体</li>
+ * <li>{@link #decode()}: json解析</li>
+ * </ul>
+ * {@link Http#builder} 使用 {@link retrofit2.adapter.rxjava.RxJavaCallAdapterFactory#createAsync()},
+ * 请求在OkHttp的 {@link okhttp3.Dispatcher} 线程执行, 拦截器中的阻塞等待(限流排队, 重试间隔, 合并请求)不会占用这里的线程,
+ * 每个host的线程数由Dispatcher限制, 见 {@link HttpClients#baseClient()}.
+ * 只用于请求和解析, 取消订阅和其他后台任务仍然使用 {@link Schedulers#io()}, 不占用有界的通道.
+ * 线程数请在第一次请求之前修改, 之后可以通过 {@link #resize(int, int)} 调整.
+ * 超过线程数的任务排队等待, {@link #stats()} 可以查看每个通道的排队情况.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class HttpSchedulers {
+
+    /**
+     * 网络线程数, 请求的并发数由 {@link okhttp3.Dispatcher} 和 {@link ConcurrencyLimiter} 控制
+     */
+    public static int NETWORK_THREAD_COUNT = 16;
+
+    /**
+     * 解析线程数, 请在第一次请求之前修改
+     */
+    public static int DECODE_THREAD_COUNT = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static volatile Lane network;
+    private static volatile Lane decode;
+
+    /**
+     * 网络请求使用的调度器, 线程数固定为 {@link #NETWORK_THREAD_COUNT}
+     */
+    public static Scheduler network() {
+        if (network == null) {
+            synchronized (HttpSchedulers.class) {
+                if (network == null) {
+                    network = new Lane("http-network", NETWORK_THREAD_COUNT);
+                }
+            }
+        }
+        return network.scheduler;
+    }
+
+    /**
+     * 解析json使用的调度器, 线程数固定为 {@link #DECODE_THREAD_COUNT}
+     */
+    public static Scheduler decode() {
+        if (decode == null) {
+            synchronized (HttpSchedulers.class) {
+                if (decode == null) {
+                    decode = new Lane("http-decode", DECODE_THREAD_COUNT);
+                }
+            }
+        }
+        return decode.scheduler;
+    }
+
+    /**
+     * 修改线程数, 已经创建的通道立即生效
+     */
+    public static synchronized void resize(int networkThreadCount, int decodeThreadCount) {
+        NETWORK_THREAD_COUNT = networkThreadCount;
+        DECODE_THREAD_COUNT = decodeThreadCount;
+        if (network != null) {
+            network.resize(networkThreadCount);
+        }
+        if (decode != null) {
+            decode.resize(decodeThreadCount);
+        }
+    }
+
+    /**
+     * 已经创建的通道的统计
+     */
+    public static List<Stats> stats() {
+        List<Stats> result = new ArrayList<>();
+        Lane[] lanes = {network, decode};
+        for (Lane lane : lanes) {
+            if (lane != null) {
+                result.add(lane.stats());
+            }
+        }
+        return result;
+    }
+
+    private static final class Lane {
+        final String name;
+        final LaneExecutor executor;
+        final Scheduler scheduler;
+
+        Lane(String name, int threadCount) {
+            this.name = name;
+            executor = new LaneExecutor(Math.max(1, threadCount), new NamedThreadFactory(name));
+            executor.allowCoreThreadTimeOut(true);
+            scheduler = Schedulers.from(executor);
+        }
+
+        void resize(int threadCount) {
+            threadCount = Math.max(1, threadCount);
+            //core不能大于max
+            if (threadCount > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(threadCount);
+                executor.setCorePoolSize(threadCount);
+            } else {
+                executor.setCorePoolSize(threadCount);
+                executor.setMaximumPoolSize(threadCount);
+            }
+        }
+
+        Stats stats() {
+            long completed = executor.completedCount.get();
+            return new Stats(name, executor.getMaximumPoolSize(), executor.getActiveCount(),
+                    executor.getQueue().size(), executor.getLargestPoolSize(), completed,
+                    completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(executor.totalWaitNanos.get() / completed),
+                    TimeUnit.NANOSECONDS.toMillis(executor.maxWaitNanos.get()));
+        }
+    }
+
+    /**
+     * 记录任务从提交到开始执行的排队时间
+     */
+    private static final class LaneExecutor extends ThreadPoolExecutor {
+        final AtomicLong completedCount = new AtomicLong();
+        final AtomicLong totalWaitNanos = new AtomicLong();
+        final AtomicLong maxWaitNanos = new AtomicLong();
+
+        LaneExecutor(int threadCount, NamedThreadFactory threadFactory) {
+            super(threadCount, threadCount, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        }
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            super.execute(new TimedRunnable(command));
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r) {
+            if (r instanceof TimedRunnable) {
+                long waitNanos = System.nanoTime() - ((TimedRunnable) r).submitTime;
+                completedCount.incrementAndGet();
+                totalWaitNanos.addAndGet(waitNanos);
+                long max;
+                do {
+                    max = maxWaitNanos.get();
+                } while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos));
+            }
+            super.beforeExecute(t, r);
+        }
+    }
+
+    private static final class TimedRunnable implements Runnable {
+        final Runnable runnable;
+        final long submitTime = System.nanoTime();
+
+        TimedRunnable(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+    }
+
+    public static class Stats {
+        public final String name;
+        public final int threadCount;
+        public final int activeCount;
+        public final int queueSize;
+        public final int largestPoolSize;
+        /**
+         * 开始执行的任务数
+         */
+        public final long taskCount;
+        public final long avgWaitMs;
+        public final long maxWaitMs;
+
+        Stats(String name, int threadCount, int activeCount, int queueSize, int largestPoolSize,
+              long taskCount, long avgWaitMs, long maxWaitMs) {
+            this.name = name;
+            this.threadCount = threadCount;
+            this.activeCount = activeCount;
+            this.queueSize = queueSize;
+            this.largestPoolSize = largestPoolSize;
+            this.taskCount = taskCount;
+            this.avgWaitMs = avgWaitMs;
+            this.maxWaitMs = maxWaitMs;
+        }
+
+        @Override
+        public String toString() {
+            return name +
+                    " thread:" + threadCount + "(largest:" + largestPoolSize + ")" +
+                    " active:" + activeCount +
+                    " queue:" + queueSize +
+                    " task:" + taskCount +
+                    " wait:" + avgWaitMs + "ms(max:" + maxWaitMs + "ms)";
+        }
+    }
+}
@@ -1,18 +1,28 @@
 package com.angcyo.http;
 
-import android.util.JsonReader;
+import android.support.annotation.NonNull;
+import com.angcyo.http.log.LogUtil;
 import com.angcyo.http.type.TypeBuilder;
-import com.google.gson.Gson;
+import com.google.gson.*;
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import rx.Observable;
+import rx.Observer;
+import rx.observables.SyncOnSubscribe;
 
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
-import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Copyright (C) 2016,深圳市红鸟网络科技股份有限公司 All rights reserved.
@@ -27,142 +37,353 @@ import java.util.Map;
  */
 public class Json {
 
+    private static final Map<Type, TypeAdapter<?>> adapterCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Type, AdapterStat> adapterStats = new ConcurrentHashMap<>();
+
+    private static GsonBuilder gsonBuilder = newGsonBuilder();
+    private static volatile Gson gson;
+
+    /**
+     * 全局共用的Gson, 复用Gson内部的TypeAdapter缓存
+     */
+    public static Gson gson() {
+        if (gson == null) {
+            synchronized (Json.class) {
+                if (gson == null) {
+                    gson = gsonBuilder.create();
+                }
+            }
+        }
+        return gson;
+    }
+
+    /**
+     * 替换全局的Gson配置, 请在第一次请求之前调用.
+     * int[]/long[]/double[] 的解析会重新注册到builder中, 会覆盖builder中这几个类型的TypeAdapter
+     */
+    public static void init(@NonNull GsonBuilder builder) {
+        synchronized (Json.class) {
+            gsonBuilder = configure(builder);
+            reset();
+        }
+    }
+
+    public static void registerTypeAdapter(@NonNull Type type, @NonNull Object typeAdapter) {
+        synchronized (Json.class) {
+            gsonBuilder.registerTypeAdapter(type, typeAdapter);
+            reset();
+        }
+    }
+
+    public static void registerTypeAdapterFactory(@NonNull TypeAdapterFactory factory) {
+        synchronized (Json.class) {
+            gsonBuilder.registerTypeAdapterFactory(factory);
+            reset();
+        }
+    }
+
+    /**
+     * 预热, 提前创建对应类型的TypeAdapter, 可以在子线程启动时调用
+     */
+    public static void warm(Type... types) {
+        if (types == null) {
+            return;
+        }
+        for (Type type : types) {
+            adapter(type);
+        }
+    }
+
+    /**
+     * 获取缓存的TypeAdapter
+     */
+    public static <T> TypeAdapter<T> adapter(@NonNull Type type) {
+        TypeAdapter<T> adapter = (TypeAdapter<T>) adapterCache.get(type);
+        if (adapter == null) {
+            stat(type).miss.incrementAndGet();
+            adapter = (TypeAdapter<T>) gson().getAdapter(TypeToken.get(type));
+            adapterCache.put(type, adapter);
+        } else {
+            stat(type).hit.incrementAndGet();
+        }
+        return adapter;
+    }
+
+    /**
+     * TypeAdapter缓存的命中情况, 以及需要通过反射创建TypeAdapter的类型
+     */
+    public static String adapterStats() {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<Type, AdapterStat> entry : adapterStats.entrySet()) {
+            AdapterStat stat = entry.getValue();
+            builder.append(entry.getKey())
+                    .append(" hit:").append(stat.hit.get())
+                    .append(" miss:").append(stat.miss.get())
+                    .append(" reflect:").append(stat.reflect.get())
+                    .append(LogUtil.LINE_SEPARATOR);
+        }
+        return builder.toString();
+    }
+
+    public static void clearAdapterStats() {
+        adapterStats.clear();
+    }
+
     public static <T> List<T> fromList(String json, Class<T> type) {
-        Gson gson = new Gson();
-        return gson.fromJson(json, TypeBuilder.newInstance(List.class).addTypeParam(type).build());
+        return from(json, TypeBuilder.listOf(type));
     }
 
     public static <T> T from(String json, Class<T> type) {
-        Gson gson = new Gson();
-        return gson.fromJson(json, type);
+        return from(json, (Type) type);
     }
 
     public static <T> T from(String json, Type type) {
-        Gson gson = new Gson();
-        return gson.fromJson(json, type);
-    }
-
-    public static String to(Object obj) {
-        Gson gson = new Gson();
-        return gson.toJson(obj);
+        if (json == null) {
+            return null;
+        }
+        return from(new StringReader(json), type);
     }
 
-    public static <T> T from2(String json, Class<T> type) {
-        T result = null;
-        JsonReader jsonReader = new JsonReader(new StringReader(json));
+    /**
+     * 直接从流中解析, 不需要先读取成完整的字符串
+     */
+    public static <T> T from(Reader reader, Type type) {
+        JsonReader jsonReader = gson().newJsonReader(reader);
+        T result = read(jsonReader, type);
         try {
-            result = readerObject(jsonReader, type);
-        } catch (Exception e) {
-            e.printStackTrace();
-        } finally {
-            try {
-                jsonReader.close();
-            } catch (IOException e) {
-
+            if (result != null && jsonReader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonIOException("JSON document was not fully consumed.");
             }
+        } catch (MalformedJsonException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
         }
         return result;
     }
 
-    private static <T> T readerObject(JsonReader jsonReader, Class<T> type) {
-        T result = null;
-        try {
-            result = (T) Class.forName(type.getName()).newInstance();
-            Field[] fields = result.getClass().getDeclaredFields();
-            Map<String, Field> fieldsMap = new HashMap<>();
-            for (Field field : fields) {
-                fieldsMap.put(field.getName(), field);
+    /**
+     * 逐个解析json数组中的元素, 每解析完一个就发射一个, 支持背压.
+     * 解析结束, 解析出错或者取消订阅时, 会关闭reader. 解析的异常包装成 {@link HttpException}.
+     */
+    public static <T> Observable<T> stream(@NonNull final Reader reader, @NonNull final Type elementType) {
+        return Observable.create(new SyncOnSubscribe<StreamState<T>, T>() {
+            @Override
+            protected StreamState<T> generateState() {
+                JsonReader jsonReader = gson().newJsonReader(reader);
+                jsonReader.setLenient(true);
+                try {
+                    TypeAdapter<T> adapter = adapter(elementType);
+                    jsonReader.beginArray();
+                    return new StreamState<>(jsonReader, adapter);
+                } catch (Exception e) {
+                    //body不是数组(比如错误信息的json对象)时, 不会回调onUnsubscribe, 需要在这里关闭
+                    closeQuietly(jsonReader);
+                    throw new HttpException(e, null);
+                }
             }
 
-            jsonReader.beginObject();
-            while (jsonReader.hasNext()) {
+            @Override
+            protected StreamState<T> next(StreamState<T> state, Observer<? super T> observer) {
+                T element;
                 try {
-                    String nextName = jsonReader.nextName();
-                    Field field = fieldsMap.get(nextName);
-                    field.setAccessible(true);
-
-                    Class<?> fieldType = field.getType();
-                    Type genericType = field.getGenericType();
-                    if (genericType instanceof ParameterizedType) {
-                        //具有泛型的type, 比如List<String>
-                        Type subType = ((ParameterizedType) genericType).getActualTypeArguments()[0];
-                        Class<?> subClass = Class.forName(((Class) subType).getName());
-                        if (fieldType.isAssignableFrom(List.class)) {
-                            //field.set(result, );
-                            List list = new ArrayList<>();
-                            field.set(result, list);
-
-                            readerList(jsonReader, list, subClass);
-                        } else {
-                            //不支持的类型, 跳过
-                            jsonReader.skipValue();
-                        }
-                    } else {
-                        if (fieldType.isAssignableFrom(int.class)) {
-                            field.set(result, jsonReader.nextInt());
-                        } else if (fieldType.isAssignableFrom(long.class)) {
-                            field.set(result, jsonReader.nextLong());
-                        } else if (fieldType.isAssignableFrom(float.class) ||
-                                fieldType.isAssignableFrom(double.class)) {
-                            field.set(result, jsonReader.nextDouble());
-                        } else if (fieldType.isAssignableFrom(boolean.class)) {
-                            field.set(result, jsonReader.nextBoolean());
-                        } else if (fieldType.isAssignableFrom(String.class)) {
-                            field.set(result, jsonReader.nextString());
-                        } else {
-                            field.set(result, readerObject(jsonReader, fieldType));
-                        }
+                    if (!state.reader.hasNext()) {
+                        state.reader.endArray();
+                        observer.onCompleted();
+                        return state;
                     }
+                    element = state.adapter.read(state.reader);
                 } catch (Exception e) {
-                    //e.printStackTrace();
-                    jsonReader.skipValue();
+                    //next抛出的异常也不一定会回调onUnsubscribe
+                    closeQuietly(state.reader);
+                    throw new HttpException(e, null);
                 }
+                observer.onNext(element);
+                return state;
             }
-            jsonReader.endObject();
 
-        } catch (Exception e) {
-            //e.printStackTrace();
-            try {
-                jsonReader.skipValue();
-            } catch (IOException e1) {
-                //e1.printStackTrace();
+            @Override
+            protected void onUnsubscribe(StreamState<T> state) {
+                closeQuietly(state.reader);
             }
+        });
+    }
+
+    private static final class StreamState<T> {
+        final JsonReader reader;
+        final TypeAdapter<T> adapter;
+
+        StreamState(JsonReader reader, TypeAdapter<T> adapter) {
+            this.reader = reader;
+            this.adapter = adapter;
         }
-        return result;
     }
 
-    private static void readerList(JsonReader jsonReader, List list, Class<?> fieldType) {
+    public static String to(Object obj) {
+        return gson().toJson(obj);
+    }
+
+    /**
+     * 与 {@link Gson#fromJson(JsonReader, Type)} 一致, 只是使用缓存的TypeAdapter
+     */
+    static <T> T read(JsonReader jsonReader, Type type) {
+        boolean isEmpty = true;
+        boolean oldLenient = jsonReader.isLenient();
+        jsonReader.setLenient(true);
         try {
-            jsonReader.beginArray();
-            while (jsonReader.hasNext()) {
-                try {
-                    if (fieldType.isAssignableFrom(int.class)) {
-                        list.add(jsonReader.nextInt());
-                    } else if (fieldType.isAssignableFrom(long.class)) {
-                        list.add(jsonReader.nextLong());
-                    } else if (fieldType.isAssignableFrom(float.class) ||
-                            fieldType.isAssignableFrom(double.class)) {
-                        list.add(jsonReader.nextDouble());
-                    } else if (fieldType.isAssignableFrom(boolean.class)) {
-                        list.add(jsonReader.nextBoolean());
-                    } else if (fieldType.isAssignableFrom(String.class)) {
-                        list.add(jsonReader.nextString());
-                    } else {
-                        list.add(readerObject(jsonReader, fieldType));
-                    }
-                } catch (Exception e) {
-                    //e.printStackTrace();
-                    jsonReader.skipValue();
-                }
+            jsonReader.peek();
+            isEmpty = false;
+            TypeAdapter<T> adapter = adapter(type);
+            return adapter.read(jsonReader);
+        } catch (EOFException e) {
+            if (isEmpty) {
+                return null;
             }
-            jsonReader.endArray();
+            throw new JsonSyntaxException(e);
+        } catch (IllegalStateException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        } finally {
+            jsonReader.setLenient(oldLenient);
+        }
+    }
+
+    private static GsonBuilder newGsonBuilder() {
+        return configure(new GsonBuilder());
+    }
+
+    private static GsonBuilder configure(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(int[].class, NumberArrays.INT_ARRAY_ADAPTER)
+                .registerTypeAdapter(long[].class, NumberArrays.LONG_ARRAY_ADAPTER)
+                .registerTypeAdapter(double[].class, NumberArrays.DOUBLE_ARRAY_ADAPTER)
+                .registerTypeAdapterFactory(new StatTypeAdapterFactory());
+    }
+
+    private static void reset() {
+        gson = null;
+        adapterCache.clear();
+    }
+
+    private static AdapterStat stat(Type type) {
+        AdapterStat stat = adapterStats.get(type);
+        if (stat == null) {
+            stat = new AdapterStat();
+            AdapterStat old = adapterStats.putIfAbsent(type, stat);
+            if (old != null) {
+                stat = old;
+            }
+        }
+        return stat;
+    }
+
+    private static class AdapterStat {
+        final AtomicLong hit = new AtomicLong();
+        final AtomicLong miss = new AtomicLong();
+        /**
+         * Gson通过反射创建TypeAdapter的次数
+         */
+        final AtomicLong reflect = new AtomicLong();
+    }
+
+    /**
+     * 放在最前面, 记录Gson需要通过反射创建TypeAdapter的类型(包括嵌套的字段类型)
+     */
+    private static class StatTypeAdapterFactory implements TypeAdapterFactory {
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            TypeAdapter<T> adapter = gson.getDelegateAdapter(this, type);
+            if (adapter instanceof ReflectiveTypeAdapterFactory.Adapter) {
+                stat(type.getType()).reflect.incrementAndGet();
+            }
+            return adapter;
+        }
+    }
+
+    /**
+     * json数字数组, 直接解析成int[], 不会装箱
+     */
+    public static int[] fromIntArray(String json) {
+        JsonReader jsonReader = new JsonReader(new StringReader(json));
+        try {
+            return NumberArrays.readInts(jsonReader);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        } finally {
+            closeQuietly(jsonReader);
+        }
+    }
+
+    public static long[] fromLongArray(String json) {
+        JsonReader jsonReader = new JsonReader(new StringReader(json));
+        try {
+            return NumberArrays.readLongs(jsonReader);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        } finally {
+            closeQuietly(jsonReader);
+        }
+    }
+
+    public static double[] fromDoubleArray(String json) {
+        JsonReader jsonReader = new JsonReader(new StringReader(json));
+        try {
+            return NumberArrays.readDoubles(jsonReader);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        } finally {
+            closeQuietly(jsonReader);
+        }
+    }
+
+    /**
+     * 按列解析数字记录数组, 见 {@link JsonColumns}
+     */
+    public static JsonColumns fromColumns(String json, JsonColumns.Spec spec) {
+        try {
+            return spec.read(json);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
         } catch (IOException e) {
             //e.printStackTrace();
+        }
+    }
+
+    /**
+     * 只解析指定路径的值, 见 {@link JsonProjection}
+     */
+    public static JsonProjection.Result project(String json, String... paths) {
+        try {
+            return JsonProjection.compile(paths).read(json);
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    /**
+     * 使用 {@link JsonReader} 和缓存的 {@link JsonPlan} 解析, 适合字段简单的bean
+     */
+    public static <T> T from2(String json, Class<T> type) {
+        T result = null;
+        JsonReader jsonReader = new JsonReader(new StringReader(json));
+        try {
+            result = JsonPlan.of(type).read(jsonReader);
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
             try {
-                jsonReader.skipValue();
-            } catch (IOException e1) {
-                //e1.printStackTrace();
+                jsonReader.close();
+            } catch (IOException e) {
+
             }
         }
+        return result;
     }
 }
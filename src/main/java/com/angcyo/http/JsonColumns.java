@@ -0,0 +1,258 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 按列解析数字记录组成的数组, 比如:
+ * <pre>
+ *     [{"t":1546300800000,"v":1.5},{"t":1546300801000,"v":2.5}]
+ * </pre>
+ * 解析成 long[] t 和 double[] v, 每一列都是基础类型数组, 不会为每条记录创建对象.
+ * <pre>
+ *     JsonColumns columns = new JsonColumns.Spec().addLong("t").addDouble("v").read(json);
+ *     long[] t = columns.getLongs("t");
+ *     double[] v = columns.getDoubles("v");
+ * </pre>
+ * 记录中缺少的字段为0, 没有声明的字段会被跳过.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class JsonColumns {
+
+    private static final int TYPE_INT = 1;
+    private static final int TYPE_LONG = 2;
+    private static final int TYPE_DOUBLE = 3;
+
+    private final String[] names;
+    private final Object[] columns;
+    private final int size;
+
+    private JsonColumns(String[] names, Object[] columns, int size) {
+        this.names = names;
+        this.columns = columns;
+        this.size = size;
+    }
+
+    /**
+     * 记录的数量
+     */
+    public int size() {
+        return size;
+    }
+
+    @Nullable
+    public int[] getInts(@NonNull String name) {
+        Object column = column(name);
+        return column instanceof int[] ? (int[]) column : null;
+    }
+
+    @Nullable
+    public long[] getLongs(@NonNull String name) {
+        Object column = column(name);
+        return column instanceof long[] ? (long[]) column : null;
+    }
+
+    @Nullable
+    public double[] getDoubles(@NonNull String name) {
+        Object column = column(name);
+        return column instanceof double[] ? (double[]) column : null;
+    }
+
+    private Object column(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return columns[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 列的声明, 声明之后可以在多个线程中复用
+     */
+    public static final class Spec {
+        /**
+         * 数组所在的路径, 使用 . 分隔, 为空表示根节点就是数组
+         */
+        private final String[] path;
+        private final List<String> names = new ArrayList<>();
+        private final List<Integer> types = new ArrayList<>();
+
+        public Spec() {
+            this(null);
+        }
+
+        /**
+         * @param path 比如 data.points
+         */
+        public Spec(@Nullable String path) {
+            this.path = path == null || path.length() == 0 ? new String[0] : path.split("\\.");
+        }
+
+        public Spec addInt(@NonNull String name) {
+            return add(name, TYPE_INT);
+        }
+
+        public Spec addLong(@NonNull String name) {
+            return add(name, TYPE_LONG);
+        }
+
+        public Spec addDouble(@NonNull String name) {
+            return add(name, TYPE_DOUBLE);
+        }
+
+        private Spec add(String name, int type) {
+            if (names.contains(name)) {
+                throw new IllegalArgumentException("duplicate column:" + name);
+            }
+            names.add(name);
+            types.add(type);
+            return this;
+        }
+
+        public JsonColumns read(@NonNull String json) throws IOException {
+            return read(new StringReader(json));
+        }
+
+        public JsonColumns read(@NonNull Reader reader) throws IOException {
+            JsonReader jsonReader = new JsonReader(reader);
+            try {
+                return read(jsonReader);
+            } finally {
+                jsonReader.close();
+            }
+        }
+
+        private JsonColumns read(JsonReader jsonReader) throws IOException {
+            int count = names.size();
+            String[] names = this.names.toArray(new String[count]);
+            int[] types = new int[count];
+            Object[] buffers = new Object[count];
+            for (int i = 0; i < count; i++) {
+                types[i] = this.types.get(i);
+                if (types[i] == TYPE_INT) {
+                    buffers[i] = new NumberArrays.Ints();
+                } else if (types[i] == TYPE_LONG) {
+                    buffers[i] = new NumberArrays.Longs();
+                } else {
+                    buffers[i] = new NumberArrays.Doubles();
+                }
+            }
+
+            int size = 0;
+            if (moveTo(jsonReader, 0) && jsonReader.peek() == JsonToken.BEGIN_ARRAY) {
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    readRow(jsonReader, names, types, buffers, size);
+                    size++;
+                }
+                jsonReader.endArray();
+            }
+
+            Object[] columns = new Object[count];
+            for (int i = 0; i < count; i++) {
+                if (types[i] == TYPE_INT) {
+                    columns[i] = ((NumberArrays.Ints) buffers[i]).toArray();
+                } else if (types[i] == TYPE_LONG) {
+                    columns[i] = ((NumberArrays.Longs) buffers[i]).toArray();
+                } else {
+                    columns[i] = ((NumberArrays.Doubles) buffers[i]).toArray();
+                }
+            }
+            return new JsonColumns(names, columns, size);
+        }
+
+        /**
+         * 移动到path指定的数组, 其他值全部跳过
+         */
+        private boolean moveTo(JsonReader jsonReader, int depth) throws IOException {
+            if (depth == path.length) {
+                return true;
+            }
+            if (jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
+                return false;
+            }
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                if (path[depth].equals(jsonReader.nextName())) {
+                    //找到之后不再关心剩余的内容
+                    return moveTo(jsonReader, depth + 1);
+                }
+                jsonReader.skipValue();
+            }
+            return false;
+        }
+
+        private static void readRow(JsonReader jsonReader, String[] names, int[] types,
+                                    Object[] buffers, int row) throws IOException {
+            //先补0, 保证每一列的长度一致, 缺少的字段为0
+            for (int i = 0; i < buffers.length; i++) {
+                fill(buffers[i], types[i], row + 1);
+            }
+
+            if (jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
+                jsonReader.skipValue();
+            } else {
+                jsonReader.beginObject();
+                while (jsonReader.hasNext()) {
+                    int index = indexOf(names, jsonReader.nextName());
+                    if (index < 0 || jsonReader.peek() == JsonToken.NULL) {
+                        jsonReader.skipValue();
+                        continue;
+                    }
+                    if (types[index] == TYPE_INT) {
+                        ((NumberArrays.Ints) buffers[index]).data[row] = jsonReader.nextInt();
+                    } else if (types[index] == TYPE_LONG) {
+                        ((NumberArrays.Longs) buffers[index]).data[row] = jsonReader.nextLong();
+                    } else {
+                        ((NumberArrays.Doubles) buffers[index]).data[row] = jsonReader.nextDouble();
+                    }
+                }
+                jsonReader.endObject();
+            }
+        }
+
+        /**
+         * 补0直到列的长度为size
+         */
+        private static void fill(Object buffer, int type, int size) {
+            if (type == TYPE_INT) {
+                NumberArrays.Ints ints = (NumberArrays.Ints) buffer;
+                while (ints.size < size) {
+                    ints.add(0);
+                }
+            } else if (type == TYPE_LONG) {
+                NumberArrays.Longs longs = (NumberArrays.Longs) buffer;
+                while (longs.size < size) {
+                    longs.add(0);
+                }
+            } else {
+                NumberArrays.Doubles doubles = (NumberArrays.Doubles) buffer;
+                while (doubles.size < size) {
+                    doubles.add(0);
+                }
+            }
+        }
+
+        private static int indexOf(String[] names, String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
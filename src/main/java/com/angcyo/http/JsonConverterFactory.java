@@ -0,0 +1,81 @@
+package com.angcyo.http;
+
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+
+/**
+ * 与 {@link retrofit2.converter.gson.GsonConverterFactory} 一致,
+ * 只是每次转换都通过 {@link Json#adapter(Type)} 获取TypeAdapter,
+ * 所以 {@link Json#init} 和 {@link Json#registerTypeAdapter} 对已经创建的Retrofit接口同样生效.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class JsonConverterFactory extends Converter.Factory {
+
+    private static final MediaType MEDIA_TYPE = MediaType.get("application/json; charset=UTF-8");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private JsonConverterFactory() {
+    }
+
+    public static JsonConverterFactory create() {
+        return new JsonConverterFactory();
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(final Type type, Annotation[] annotations,
+                                                            Retrofit retrofit) {
+        return new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(ResponseBody value) throws IOException {
+                JsonReader jsonReader = Json.gson().newJsonReader(value.charStream());
+                try {
+                    TypeAdapter<Object> adapter = Json.adapter(type);
+                    Object result = adapter.read(jsonReader);
+                    if (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+                        throw new JsonIOException("JSON document was not fully consumed.");
+                    }
+                    return result;
+                } finally {
+                    value.close();
+                }
+            }
+        };
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(final Type type, Annotation[] parameterAnnotations,
+                                                          Annotation[] methodAnnotations, Retrofit retrofit) {
+        return new Converter<Object, RequestBody>() {
+            @Override
+            public RequestBody convert(Object value) throws IOException {
+                Buffer buffer = new Buffer();
+                Writer writer = new OutputStreamWriter(buffer.outputStream(), UTF_8);
+                JsonWriter jsonWriter = Json.gson().newJsonWriter(writer);
+                TypeAdapter<Object> adapter = Json.adapter(type);
+                adapter.write(jsonWriter, value);
+                jsonWriter.close();
+                return RequestBody.create(MEDIA_TYPE, buffer.readByteString());
+            }
+        };
+    }
+}
@@ -0,0 +1,323 @@
+package com.angcyo.http;
+
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link Json#from2(String, Class)} 使用的字段绑定计划.
+ * <p>
+ * 每个类只反射一次: 构造方法, 字段, 以及字段对应的解析方式都在第一次使用时确定并缓存,
+ * 之后每个对象的解析只需要查表和赋值, 基础类型字段直接使用 {@link Field#setInt(Object, int)} 等方法, 不会装箱.
+ * int[]/long[]/double[] 字段直接解析到基础类型数组中.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+final class JsonPlan<T> {
+
+    static final int KIND_SKIP = 0;
+    static final int KIND_INT = 1;
+    static final int KIND_LONG = 2;
+    static final int KIND_FLOAT = 3;
+    static final int KIND_DOUBLE = 4;
+    static final int KIND_BOOLEAN = 5;
+    static final int KIND_STRING = 6;
+    static final int KIND_BOX = 7;
+    static final int KIND_LIST = 8;
+    static final int KIND_OBJECT = 9;
+    static final int KIND_INT_ARRAY = 10;
+    static final int KIND_LONG_ARRAY = 11;
+    static final int KIND_DOUBLE_ARRAY = 12;
+
+    private static final Map<Class<?>, JsonPlan<?>> plans = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    private final Constructor<T> constructor;
+    private final Map<String, Binding> bindings;
+
+    private JsonPlan(Class<T> type) {
+        this.type = type;
+        this.constructor = findConstructor(type);
+        this.bindings = new HashMap<>();
+
+        Class<?> cls = type;
+        while (cls != null && cls != Object.class) {
+            for (Field field : cls.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                field.setAccessible(true);
+                Binding binding = new Binding(field);
+
+                SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                if (serializedName == null) {
+                    putBinding(field.getName(), binding);
+                } else {
+                    putBinding(serializedName.value(), binding);
+                    for (String alternate : serializedName.alternate()) {
+                        putBinding(alternate, binding);
+                    }
+                }
+            }
+            cls = cls.getSuperclass();
+        }
+    }
+
+    static <T> JsonPlan<T> of(Class<T> type) {
+        JsonPlan<T> plan = (JsonPlan<T>) plans.get(type);
+        if (plan == null) {
+            plan = new JsonPlan<>(type);
+            plans.put(type, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * 子类的同名字段优先
+     */
+    private void putBinding(String name, Binding binding) {
+        if (!bindings.containsKey(name)) {
+            bindings.put(name, binding);
+        }
+    }
+
+    private static <T> Constructor<T> findConstructor(Class<T> type) {
+        try {
+            Constructor<T> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (Exception e) {
+            //没有无参构造方法
+            return null;
+        }
+    }
+
+    /**
+     * 解析一个对象, 无法创建实例时跳过这个值并返回null
+     */
+    T read(JsonReader jsonReader) throws IOException {
+        if (constructor == null || jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
+            jsonReader.skipValue();
+            return null;
+        }
+
+        T result;
+        try {
+            result = constructor.newInstance();
+        } catch (Exception e) {
+            jsonReader.skipValue();
+            return null;
+        }
+
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            Binding binding = bindings.get(jsonReader.nextName());
+            if (binding == null || jsonReader.peek() == JsonToken.NULL) {
+                jsonReader.skipValue();
+                continue;
+            }
+            try {
+                binding.read(jsonReader, result);
+            } catch (IllegalAccessException e) {
+                jsonReader.skipValue();
+            } catch (RuntimeException e) {
+                //类型不匹配, 跳过
+                jsonReader.skipValue();
+            }
+        }
+        jsonReader.endObject();
+        return result;
+    }
+
+    /**
+     * 根据类型, 确定解析方式
+     */
+    static int kindOf(Class<?> cls) {
+        if (cls == int.class) {
+            return KIND_INT;
+        } else if (cls == long.class) {
+            return KIND_LONG;
+        } else if (cls == float.class) {
+            return KIND_FLOAT;
+        } else if (cls == double.class) {
+            return KIND_DOUBLE;
+        } else if (cls == boolean.class) {
+            return KIND_BOOLEAN;
+        } else if (cls == String.class) {
+            return KIND_STRING;
+        } else if (cls == Integer.class || cls == Long.class || cls == Float.class ||
+                cls == Double.class || cls == Boolean.class) {
+            return KIND_BOX;
+        } else if (cls == int[].class) {
+            return KIND_INT_ARRAY;
+        } else if (cls == long[].class) {
+            return KIND_LONG_ARRAY;
+        } else if (cls == double[].class) {
+            return KIND_DOUBLE_ARRAY;
+        } else if (List.class.isAssignableFrom(cls)) {
+            return KIND_LIST;
+        } else if (cls.isPrimitive() || cls.isArray() || cls.isInterface() ||
+                Modifier.isAbstract(cls.getModifiers())) {
+            return KIND_SKIP;
+        }
+        return KIND_OBJECT;
+    }
+
+    /**
+     * 读取一个值, 基础类型会被装箱, 用于List元素和包装类型字段
+     */
+    static Object readValue(JsonReader jsonReader, Class<?> cls, int kind) throws IOException {
+        switch (kind) {
+            case KIND_INT:
+                return jsonReader.nextInt();
+            case KIND_LONG:
+                return jsonReader.nextLong();
+            case KIND_FLOAT:
+                return (float) jsonReader.nextDouble();
+            case KIND_DOUBLE:
+                return jsonReader.nextDouble();
+            case KIND_BOOLEAN:
+                return jsonReader.nextBoolean();
+            case KIND_STRING:
+                return jsonReader.nextString();
+            case KIND_BOX:
+                return readValue(jsonReader, cls, kindOf(unbox(cls)));
+            case KIND_OBJECT:
+                return of(cls).read(jsonReader);
+            case KIND_INT_ARRAY:
+                return NumberArrays.readInts(jsonReader);
+            case KIND_LONG_ARRAY:
+                return NumberArrays.readLongs(jsonReader);
+            case KIND_DOUBLE_ARRAY:
+                return NumberArrays.readDoubles(jsonReader);
+            default:
+                jsonReader.skipValue();
+                return null;
+        }
+    }
+
+    private static Class<?> unbox(Class<?> cls) {
+        if (cls == Integer.class) {
+            return int.class;
+        } else if (cls == Long.class) {
+            return long.class;
+        } else if (cls == Float.class) {
+            return float.class;
+        } else if (cls == Double.class) {
+            return double.class;
+        }
+        return boolean.class;
+    }
+
+    @Override
+    public String toString() {
+        return "JsonPlan{" + type.getName() + " " + bindings.keySet() + "}";
+    }
+
+    /**
+     * 一个字段的解析方式, 创建时确定
+     */
+    private static final class Binding {
+        final Field field;
+        final int kind;
+        /**
+         * List的元素类型
+         */
+        final Class<?> elementClass;
+        final int elementKind;
+
+        Binding(Field field) {
+            this.field = field;
+
+            Class<?> fieldType = field.getType();
+            int kind = kindOf(fieldType);
+            Class<?> elementClass = null;
+            int elementKind = KIND_SKIP;
+
+            if (kind == KIND_LIST) {
+                Type genericType = field.getGenericType();
+                if (genericType instanceof ParameterizedType &&
+                        ((ParameterizedType) genericType).getActualTypeArguments()[0] instanceof Class &&
+                        fieldType.isAssignableFrom(ArrayList.class)) {
+                    elementClass = (Class<?>) ((ParameterizedType) genericType).getActualTypeArguments()[0];
+                    elementKind = kindOf(elementClass);
+                } else {
+                    //不支持的List类型, 跳过
+                    kind = KIND_SKIP;
+                }
+            }
+
+            this.kind = kind;
+            this.elementClass = elementClass;
+            this.elementKind = elementKind;
+        }
+
+        void read(JsonReader jsonReader, Object target) throws IOException, IllegalAccessException {
+            switch (kind) {
+                case KIND_INT:
+                    field.setInt(target, jsonReader.nextInt());
+                    break;
+                case KIND_LONG:
+                    field.setLong(target, jsonReader.nextLong());
+                    break;
+                case KIND_FLOAT:
+                    field.setFloat(target, (float) jsonReader.nextDouble());
+                    break;
+                case KIND_DOUBLE:
+                    field.setDouble(target, jsonReader.nextDouble());
+                    break;
+                case KIND_BOOLEAN:
+                    field.setBoolean(target, jsonReader.nextBoolean());
+                    break;
+                case KIND_STRING:
+                    field.set(target, jsonReader.nextString());
+                    break;
+                case KIND_LIST:
+                    List<Object> list = new ArrayList<>();
+                    jsonReader.beginArray();
+                    while (jsonReader.hasNext()) {
+                        if (jsonReader.peek() == JsonToken.NULL) {
+                            jsonReader.nextNull();
+                            list.add(null);
+                        } else {
+                            try {
+                                list.add(readValue(jsonReader, elementClass, elementKind));
+                            } catch (RuntimeException e) {
+                                //类型不匹配, 跳过
+                                jsonReader.skipValue();
+                            }
+                        }
+                    }
+                    jsonReader.endArray();
+                    field.set(target, list);
+                    break;
+                case KIND_BOX:
+                case KIND_OBJECT:
+                case KIND_INT_ARRAY:
+                case KIND_LONG_ARRAY:
+                case KIND_DOUBLE_ARRAY:
+                    field.set(target, readValue(jsonReader, field.getType(), kind));
+                    break;
+                default:
+                    jsonReader.skipValue();
+                    break;
+            }
+        }
+    }
+}
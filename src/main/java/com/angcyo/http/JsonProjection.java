@@ -0,0 +1,321 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 只解析需要的字段, 其他的值全部通过 {@link JsonReader#skipValue()} 跳过, 不会创建对象.
+ * <p>
+ * 路径使用 . 分隔, 数组使用 [] 标识, 比如:
+ * <pre>
+ *     JsonProjection projection = JsonProjection.compile("data.items[].id", "data.items[].title");
+ *     JsonProjection.Result result = projection.read(json);
+ *     long id = result.getLong("data.items[].id", 0);
+ * </pre>
+ * 根节点是数组时, 使用 [].id, 同一个projection中的路径必须都以 [] 开头或者都不以 [] 开头.
+ * <p>
+ * 同一个路径的所有值按出现顺序保存, 数字保存为原始字符串, 避免long精度丢失.
+ * 值不存在或者不是数字时, getLong/getDouble 返回传入的默认值.
+ * compile之后的对象是不可变的, 可以在多个线程中复用.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class JsonProjection {
+
+    private static final String ARRAY = "[]";
+
+    private final String[] paths;
+    private final Node root;
+
+    private JsonProjection(String[] paths, Node root) {
+        this.paths = paths;
+        this.root = root;
+    }
+
+    public static JsonProjection compile(@NonNull String... paths) {
+        Node root = new Node();
+        for (int i = 0; i < paths.length; i++) {
+            String path = paths[i];
+            if (path == null || path.length() == 0) {
+                throw new IllegalArgumentException("path can't be empty");
+            }
+
+            Node node = root;
+            String[] segments = path.split("\\.");
+            boolean rootArray = segments.length > 0 && segments[0].equals(ARRAY);
+            if (i == 0) {
+                root.isArray = rootArray;
+            } else if (root.isArray != rootArray) {
+                //根节点不能既是数组又是对象
+                throw new IllegalArgumentException("path conflict:" + path);
+            }
+            for (int j = 0; j < segments.length; j++) {
+                String segment = segments[j];
+                boolean isArray = segment.endsWith(ARRAY);
+                String name = isArray ? segment.substring(0, segment.length() - ARRAY.length()) : segment;
+
+                if (name.length() == 0) {
+                    if (j == 0 && isArray) {
+                        //根节点是数组, 已经在上面处理
+                        continue;
+                    }
+                    throw new IllegalArgumentException("illegal path:" + path);
+                }
+                if (name.contains(ARRAY) || name.contains("[") || name.contains("]")) {
+                    throw new IllegalArgumentException("nested array is not supported:" + path);
+                }
+
+                if (node.children == null) {
+                    node.children = new HashMap<>();
+                }
+                Node child = node.children.get(name);
+                if (child == null) {
+                    child = new Node();
+                    child.isArray = isArray;
+                    node.children.put(name, child);
+                } else if (child.isArray != isArray) {
+                    throw new IllegalArgumentException("path conflict:" + path);
+                }
+                node = child;
+            }
+
+            if (node == root || node.index >= 0 || node.children != null) {
+                throw new IllegalArgumentException("path conflict:" + path);
+            }
+            node.index = i;
+        }
+
+        //一个节点不能既是叶子又有子节点
+        checkLeaf(root, paths);
+        return new JsonProjection(paths.clone(), root);
+    }
+
+    private static void checkLeaf(Node node, String[] paths) {
+        if (node.children == null) {
+            return;
+        }
+        for (Node child : node.children.values()) {
+            if (child.index >= 0 && child.children != null) {
+                throw new IllegalArgumentException("path conflict:" + paths[child.index]);
+            }
+            checkLeaf(child, paths);
+        }
+    }
+
+    public Result read(@NonNull String json) throws IOException {
+        return read(new StringReader(json));
+    }
+
+    public Result read(@NonNull Reader reader) throws IOException {
+        Result result = new Result(paths);
+        JsonReader jsonReader = new JsonReader(reader);
+        try {
+            readNode(jsonReader, root, result);
+        } finally {
+            jsonReader.close();
+        }
+        return result;
+    }
+
+    private static void readNode(JsonReader jsonReader, Node node, Result result) throws IOException {
+        if (node.isArray) {
+            if (jsonReader.peek() != JsonToken.BEGIN_ARRAY) {
+                jsonReader.skipValue();
+                return;
+            }
+            jsonReader.beginArray();
+            while (jsonReader.hasNext()) {
+                readElement(jsonReader, node, result);
+            }
+            jsonReader.endArray();
+        } else {
+            readElement(jsonReader, node, result);
+        }
+    }
+
+    private static void readElement(JsonReader jsonReader, Node node, Result result) throws IOException {
+        if (node.index >= 0) {
+            result.values[node.index].add(readLeaf(jsonReader));
+            return;
+        }
+
+        if (jsonReader.peek() != JsonToken.BEGIN_OBJECT) {
+            jsonReader.skipValue();
+            return;
+        }
+        jsonReader.beginObject();
+        while (jsonReader.hasNext()) {
+            Node child = node.children.get(jsonReader.nextName());
+            if (child == null) {
+                jsonReader.skipValue();
+            } else {
+                readNode(jsonReader, child, result);
+            }
+        }
+        jsonReader.endObject();
+    }
+
+    /**
+     * 叶子节点是对象或者数组时, 转换成 {@link Map} 和 {@link List}
+     */
+    private static Object readLeaf(JsonReader jsonReader) throws IOException {
+        switch (jsonReader.peek()) {
+            case STRING:
+            case NUMBER:
+                return jsonReader.nextString();
+            case BOOLEAN:
+                return jsonReader.nextBoolean();
+            case NULL:
+                jsonReader.nextNull();
+                return null;
+            case BEGIN_ARRAY:
+                List<Object> list = new ArrayList<>();
+                jsonReader.beginArray();
+                while (jsonReader.hasNext()) {
+                    list.add(readLeaf(jsonReader));
+                }
+                jsonReader.endArray();
+                return list;
+            case BEGIN_OBJECT:
+                Map<String, Object> map = new LinkedHashMap<>();
+                jsonReader.beginObject();
+                while (jsonReader.hasNext()) {
+                    map.put(jsonReader.nextName(), readLeaf(jsonReader));
+                }
+                jsonReader.endObject();
+                return map;
+            default:
+                jsonReader.skipValue();
+                return null;
+        }
+    }
+
+    private static final class Node {
+        /**
+         * 对应的值是数组, 子节点作用于数组中的每个元素
+         */
+        boolean isArray;
+        /**
+         * 叶子节点在paths中的索引
+         */
+        int index = -1;
+        Map<String, Node> children;
+    }
+
+    /**
+     * 解析结果, 每个路径对应一个值列表
+     */
+    public static final class Result {
+        private final String[] paths;
+        private final List<Object>[] values;
+
+        Result(String[] paths) {
+            this.paths = paths;
+            this.values = new List[paths.length];
+            for (int i = 0; i < paths.length; i++) {
+                values[i] = new ArrayList<>();
+            }
+        }
+
+        /**
+         * 路径对应的所有值, 路径不存在时返回空列表
+         */
+        @NonNull
+        public List<Object> get(@NonNull String path) {
+            for (int i = 0; i < paths.length; i++) {
+                if (paths[i].equals(path)) {
+                    return values[i];
+                }
+            }
+            return new ArrayList<>();
+        }
+
+        public int size(@NonNull String path) {
+            return get(path).size();
+        }
+
+        @Nullable
+        public String getString(@NonNull String path, int index) {
+            List<Object> list = get(path);
+            if (index < 0 || index >= list.size()) {
+                return null;
+            }
+            Object value = list.get(index);
+            return value == null ? null : value.toString();
+        }
+
+        public long getLong(@NonNull String path, int index) {
+            return getLong(path, index, 0);
+        }
+
+        public long getLong(@NonNull String path, int index, long defaultValue) {
+            String value = getString(path, index);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                try {
+                    return (long) Double.parseDouble(value);
+                } catch (NumberFormatException e2) {
+                    return defaultValue;
+                }
+            }
+        }
+
+        public int getInt(@NonNull String path, int index) {
+            return (int) getLong(path, index, 0);
+        }
+
+        public int getInt(@NonNull String path, int index, int defaultValue) {
+            return (int) getLong(path, index, defaultValue);
+        }
+
+        public double getDouble(@NonNull String path, int index) {
+            return getDouble(path, index, 0);
+        }
+
+        public double getDouble(@NonNull String path, int index, double defaultValue) {
+            String value = getString(path, index);
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                return defaultValue;
+            }
+        }
+
+        public boolean getBoolean(@NonNull String path, int index) {
+            return Boolean.parseBoolean(getString(path, index));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < paths.length; i++) {
+                builder.append(paths[i]).append('=').append(values[i]);
+                if (i != paths.length - 1) {
+                    builder.append(' ');
+                }
+            }
+            return builder.toString();
+        }
+    }
+}
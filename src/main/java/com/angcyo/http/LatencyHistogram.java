@@ -0,0 +1,195 @@
+package com.angcyo.http;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的耗时直方图, 类似HdrHistogram的对数线性分桶:
+ * 以微秒为单位, 每个2的幂区间再平分成 {@link #SUB_BUCKET_COUNT} 个桶, 相对误差不超过 1/{@link #SUB_BUCKET_COUNT}.
+ * 最大记录 2^32 微秒(约71分钟), 超过的按最大值记录.
+ * <p>
+ * 内存固定, {@link #record(long)} 不分配对象, 可以在任意线程同时调用.
+ * {@link #intervalSnapshot()} 返回上次调用之后新增的记录, {@link Snapshot#merge(Snapshot)} 合并多个直方图.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 31;
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * 上一次 {@link #intervalSnapshot()} 时的累计值
+     */
+    private Snapshot lastSnapshot;
+
+    /**
+     * @param nanos 耗时, 纳秒
+     */
+    public void record(long nanos) {
+        long micros = Math.min(MAX_VALUE, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        counts.incrementAndGet(bucketIndex(micros));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        long max;
+        do {
+            max = maxMicros.get();
+        } while (micros > max && !maxMicros.compareAndSet(max, micros));
+    }
+
+    public long count() {
+        return totalCount.get();
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy, totalMicros.get(), maxMicros.get());
+    }
+
+    /**
+     * 从上一次调用到现在新增的记录, 第一次调用返回全部记录
+     */
+    public synchronized Snapshot intervalSnapshot() {
+        Snapshot current = snapshot();
+        Snapshot interval = lastSnapshot == null ? current : current.minus(lastSnapshot);
+        lastSnapshot = current;
+        return interval;
+    }
+
+    static int bucketIndex(long micros) {
+        if (micros < SUB_BUCKET_COUNT) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) - SUB_BUCKET_COUNT;
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + sub;
+    }
+
+    /**
+     * 桶的最小值
+     */
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long top = (index & (SUB_BUCKET_COUNT - 1)) + SUB_BUCKET_COUNT;
+        return top << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * 桶的宽度
+     */
+    static long bucketWidth(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return 1;
+        }
+        int exponent = (index >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        return 1L << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * 某一时刻的直方图副本, 可以计算百分位
+     */
+    public static class Snapshot {
+        final long[] counts;
+        public final long count;
+        public final long totalMicros;
+        public final long maxMicros;
+
+        Snapshot(long[] counts, long totalMicros, long maxMicros) {
+            long count = 0;
+            for (long c : counts) {
+                count += c;
+            }
+            this.counts = counts;
+            this.count = count;
+            this.totalMicros = totalMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        /**
+         * @param percentile 0~100, 比如 99.9
+         * @return 微秒, 返回所在桶的中间值, 不超过最大值
+         */
+        public long percentileMicros(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * count);
+            rank = Math.max(1, rank);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(maxMicros, bucketLowerBound(i) + bucketWidth(i) / 2);
+                }
+            }
+            return maxMicros;
+        }
+
+        public double percentileMs(double percentile) {
+            return percentileMicros(percentile) / 1000.0;
+        }
+
+        /**
+         * 合并两个直方图的记录, 比如多个接口或者多个时间段
+         */
+        public Snapshot merge(Snapshot other) {
+            long[] merged = new long[counts.length];
+            for (int i = 0; i < merged.length; i++) {
+                merged[i] = counts[i] + other.counts[i];
+            }
+            return new Snapshot(merged, totalMicros + other.totalMicros, Math.max(maxMicros, other.maxMicros));
+        }
+
+        /**
+         * 两次累计值的差, 最大值取有记录的最高桶的上限
+         */
+        Snapshot minus(Snapshot previous) {
+            long[] diff = new long[counts.length];
+            long max = 0;
+            for (int i = 0; i < diff.length; i++) {
+                diff[i] = counts[i] - previous.counts[i];
+                if (diff[i] > 0) {
+                    max = Math.min(maxMicros, bucketLowerBound(i) + bucketWidth(i) - 1);
+                }
+            }
+            return new Snapshot(diff, totalMicros - previous.totalMicros, max);
+        }
+
+        public double meanMs() {
+            return count == 0 ? 0 : totalMicros / 1000.0 / count;
+        }
+
+        @Override
+        public String toString() {
+            return "count:" + count +
+                    " mean:" + format(meanMs()) +
+                    " p50:" + format(percentileMs(50)) +
+                    " p90:" + format(percentileMs(90)) +
+                    " p99:" + format(percentileMs(99)) +
+                    " p999:" + format(percentileMs(99.9)) +
+                    " max:" + format(maxMicros / 1000.0);
+        }
+
+        private static String format(double ms) {
+            return String.format(java.util.Locale.US, "%.1fms", ms);
+        }
+    }
+}
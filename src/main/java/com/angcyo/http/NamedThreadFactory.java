@@ -0,0 +1,31 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 带名字的线程, 方便在日志和线程dump中区分
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+class NamedThreadFactory implements ThreadFactory {
+
+    private final String name;
+    private final AtomicInteger index = new AtomicInteger();
+
+    NamedThreadFactory(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Thread newThread(@NonNull Runnable r) {
+        Thread thread = new Thread(r, name + "-" + index.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
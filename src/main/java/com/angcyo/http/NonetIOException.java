@@ -0,0 +1,20 @@
+package com.angcyo.http;
+
+import java.io.IOException;
+
+/**
+ * 无网络并且没有可用的缓存时, {@link HttpCacheInterceptor} 抛出此异常, 见 {@link HttpCache}.
+ * <p>
+ * 继承IOException, OkHttp的enqueue和Rx的onError都可以正常收到.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class NonetIOException extends IOException {
+
+    public NonetIOException() {
+        super("无网络");
+    }
+}
@@ -0,0 +1,178 @@
+package com.angcyo.http;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 数字数组直接解析到可增长的基础类型数组中, 不会装箱.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+final class NumberArrays {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private NumberArrays() {
+    }
+
+    static int[] readInts(JsonReader jsonReader) throws IOException {
+        Ints ints = new Ints();
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            ints.add(jsonReader.nextInt());
+        }
+        jsonReader.endArray();
+        return ints.toArray();
+    }
+
+    static long[] readLongs(JsonReader jsonReader) throws IOException {
+        Longs longs = new Longs();
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            longs.add(jsonReader.nextLong());
+        }
+        jsonReader.endArray();
+        return longs.toArray();
+    }
+
+    static double[] readDoubles(JsonReader jsonReader) throws IOException {
+        Doubles doubles = new Doubles();
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            doubles.add(jsonReader.nextDouble());
+        }
+        jsonReader.endArray();
+        return doubles.toArray();
+    }
+
+    /**
+     * Gson默认的数组解析会先把每个元素装箱放入List, 再拷贝到数组
+     */
+    static final TypeAdapter<int[]> INT_ARRAY_ADAPTER = new TypeAdapter<int[]>() {
+        @Override
+        public void write(JsonWriter out, int[] value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginArray();
+            for (int v : value) {
+                out.value(v);
+            }
+            out.endArray();
+        }
+
+        @Override
+        public int[] read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return readInts(in);
+        }
+    };
+
+    static final TypeAdapter<long[]> LONG_ARRAY_ADAPTER = new TypeAdapter<long[]>() {
+        @Override
+        public void write(JsonWriter out, long[] value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginArray();
+            for (long v : value) {
+                out.value(v);
+            }
+            out.endArray();
+        }
+
+        @Override
+        public long[] read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return readLongs(in);
+        }
+    };
+
+    static final TypeAdapter<double[]> DOUBLE_ARRAY_ADAPTER = new TypeAdapter<double[]>() {
+        @Override
+        public void write(JsonWriter out, double[] value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginArray();
+            for (double v : value) {
+                out.value(v);
+            }
+            out.endArray();
+        }
+
+        @Override
+        public double[] read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return readDoubles(in);
+        }
+    };
+
+    static final class Ints {
+        int[] data = new int[DEFAULT_CAPACITY];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size << 1);
+            }
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return size == data.length ? data : Arrays.copyOf(data, size);
+        }
+    }
+
+    static final class Longs {
+        long[] data = new long[DEFAULT_CAPACITY];
+        int size;
+
+        void add(long value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size << 1);
+            }
+            data[size++] = value;
+        }
+
+        long[] toArray() {
+            return size == data.length ? data : Arrays.copyOf(data, size);
+        }
+    }
+
+    static final class Doubles {
+        double[] data = new double[DEFAULT_CAPACITY];
+        int size;
+
+        void add(double value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size << 1);
+            }
+            data[size++] = value;
+        }
+
+        double[] toArray() {
+            return size == data.length ? data : Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.angcyo.http;
+
+import android.support.annotation.Nullable;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Utf8;
+
+import java.io.IOException;
+
+/**
+ * 把 key:value 形式的参数直接写入请求体, 规则和 {@link Http#map(String...)} 一致:
+ * 同一个key后面的值覆盖前面的值, key: 表示移除这个key.
+ * <p>
+ * 不会创建中间的Map和字符串, {@link #writeTo(BufferedSink)} 时逐个字符写入,
+ * {@link #contentLength()} 在第一次调用时才计算.
+ * json的转义和 {@link Json#gson()} 一致(包括是否转义html字符), 表单的编码和 {@link okhttp3.FormBody} 一致.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class ParamsRequestBody extends RequestBody {
+
+    public static final MediaType JSON = MediaType.parse("application/json; charset=utf-8");
+    public static final MediaType FORM = MediaType.parse("application/x-www-form-urlencoded");
+
+    private static final String FORM_ENCODE_SET = " \"':;<=>@[]^`{}|/\\?#&!$(),~%+";
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+    /**
+     * 和 {@link com.google.gson.stream.JsonWriter} 的转义表一致
+     */
+    private static final String[] JSON_REPLACEMENT = new String[128];
+    private static final String[] HTML_SAFE_JSON_REPLACEMENT;
+
+    static {
+        for (int i = 0; i < 0x20; i++) {
+            JSON_REPLACEMENT[i] = String.format("\\u%04x", i);
+        }
+        JSON_REPLACEMENT['"'] = "\\\"";
+        JSON_REPLACEMENT['\\'] = "\\\\";
+        JSON_REPLACEMENT['\t'] = "\\t";
+        JSON_REPLACEMENT['\b'] = "\\b";
+        JSON_REPLACEMENT['\n'] = "\\n";
+        JSON_REPLACEMENT['\r'] = "\\r";
+        JSON_REPLACEMENT['\f'] = "\\f";
+        HTML_SAFE_JSON_REPLACEMENT = JSON_REPLACEMENT.clone();
+        HTML_SAFE_JSON_REPLACEMENT['<'] = "\\u003c";
+        HTML_SAFE_JSON_REPLACEMENT['>'] = "\\u003e";
+        HTML_SAFE_JSON_REPLACEMENT['&'] = "\\u0026";
+        HTML_SAFE_JSON_REPLACEMENT['='] = "\\u003d";
+        HTML_SAFE_JSON_REPLACEMENT['\''] = "\\u0027";
+    }
+
+    private final boolean isJson;
+    private final String[] args;
+    private long contentLength = -1;
+
+    private ParamsRequestBody(boolean isJson, String[] args) {
+        this.isJson = isJson;
+        this.args = args == null ? new String[0] : args.clone();
+    }
+
+    /**
+     * {"key":"value"}, 值都是字符串, 和 {@link Http#mapJson(String...)} 一致
+     */
+    public static ParamsRequestBody json(String... args) {
+        return new ParamsRequestBody(true, args);
+    }
+
+    /**
+     * key=value&amp;key2=value2
+     */
+    public static ParamsRequestBody form(String... args) {
+        return new ParamsRequestBody(false, args);
+    }
+
+    @Override
+    public MediaType contentType() {
+        return isJson ? JSON : FORM;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        if (contentLength < 0) {
+            contentLength = write(null);
+        }
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        long size = write(sink);
+        if (contentLength < 0) {
+            contentLength = size;
+        }
+    }
+
+    /**
+     * sink为null时只计算长度
+     *
+     * @return 写入的字节数, sink为null时为需要写入的字节数
+     */
+    private long write(@Nullable BufferedSink sink) throws IOException {
+        long size = 0;
+        boolean first = true;
+        String[] replacements = null;
+        if (isJson) {
+            replacements = Json.gson().htmlSafe() ? HTML_SAFE_JSON_REPLACEMENT : JSON_REPLACEMENT;
+            size += writeByte(sink, '{');
+        }
+        for (int i = 0; i < args.length; i++) {
+            int keyLength = keyLength(i);
+            if (keyLength < 0) {
+                continue;
+            }
+            String arg = args[i];
+            if (!first) {
+                size += writeByte(sink, isJson ? ',' : '&');
+            }
+            first = false;
+
+            if (isJson) {
+                size += writeJsonString(sink, replacements, arg, 0, keyLength);
+                size += writeByte(sink, ':');
+                size += writeJsonString(sink, replacements, arg, keyLength + 1, arg.length());
+            } else {
+                size += writeFormString(sink, arg, 0, keyLength);
+                size += writeByte(sink, '=');
+                size += writeFormString(sink, arg, keyLength + 1, arg.length());
+            }
+        }
+        if (isJson) {
+            size += writeByte(sink, '}');
+        }
+        return size;
+    }
+
+    /**
+     * 参数生效时返回key的长度, 没有key, 值为空或者被后面的同名参数覆盖时返回-1
+     */
+    private int keyLength(int index) {
+        String arg = args[index];
+        if (arg == null) {
+            return -1;
+        }
+        int indexOf = arg.indexOf(':');
+        if (indexOf <= 0 || indexOf == arg.length() - 1) {
+            return -1;
+        }
+        for (int i = index + 1; i < args.length; i++) {
+            String other = args[i];
+            if (other != null && other.length() > indexOf && other.charAt(indexOf) == ':' &&
+                    other.regionMatches(0, arg, 0, indexOf)) {
+                return -1;
+            }
+        }
+        return indexOf;
+    }
+
+    private static long writeJsonString(@Nullable BufferedSink sink, String[] replacements,
+                                        String string, int begin, int end) throws IOException {
+        long size = writeByte(sink, '"');
+        int last = begin;
+        for (int i = begin; i < end; i++) {
+            char c = string.charAt(i);
+            String replacement;
+            if (c < 128) {
+                replacement = replacements[c];
+            } else if (c == '\u2028') {
+                replacement = "\\u2028";
+            } else if (c == '\u2029') {
+                replacement = "\\u2029";
+            } else {
+                continue;
+            }
+            if (replacement == null) {
+                continue;
+            }
+            size += writeUtf8(sink, string, last, i);
+            if (sink != null) {
+                sink.writeUtf8(replacement);
+            }
+            size += replacement.length();
+            last = i + 1;
+        }
+        size += writeUtf8(sink, string, last, end);
+        return size + writeByte(sink, '"');
+    }
+
+    private static long writeFormString(@Nullable BufferedSink sink, String string, int begin, int end)
+            throws IOException {
+        long size = 0;
+        int last = begin;
+        int codePoint;
+        for (int i = begin; i < end; i += Character.charCount(codePoint)) {
+            codePoint = string.codePointAt(i);
+            if (codePoint >= 0x20 && codePoint < 0x7f && FORM_ENCODE_SET.indexOf(codePoint) == -1) {
+                continue;
+            }
+            size += writeUtf8(sink, string, last, i);
+            size += writePercentEncoded(sink, codePoint);
+            last = i + Character.charCount(codePoint);
+        }
+        return size + writeUtf8(sink, string, last, end);
+    }
+
+    /**
+     * 按UTF-8的字节逐个写入%XX, 和okio一样, 单独的代理字符写成?
+     */
+    private static long writePercentEncoded(@Nullable BufferedSink sink, int codePoint) throws IOException {
+        if (codePoint < 0x80) {
+            return writeHex(sink, codePoint);
+        } else if (codePoint < 0x800) {
+            return writeHex(sink, 0xc0 | codePoint >> 6)
+                    + writeHex(sink, 0x80 | codePoint & 0x3f);
+        } else if (codePoint >= 0xd800 && codePoint <= 0xdfff) {
+            return writeHex(sink, '?');
+        } else if (codePoint < 0x10000) {
+            return writeHex(sink, 0xe0 | codePoint >> 12)
+                    + writeHex(sink, 0x80 | codePoint >> 6 & 0x3f)
+                    + writeHex(sink, 0x80 | codePoint & 0x3f);
+        } else {
+            return writeHex(sink, 0xf0 | codePoint >> 18)
+                    + writeHex(sink, 0x80 | codePoint >> 12 & 0x3f)
+                    + writeHex(sink, 0x80 | codePoint >> 6 & 0x3f)
+                    + writeHex(sink, 0x80 | codePoint & 0x3f);
+        }
+    }
+
+    private static long writeHex(@Nullable BufferedSink sink, int b) throws IOException {
+        if (sink != null) {
+            sink.writeByte('%');
+            sink.writeByte(HEX_DIGITS[b >> 4 & 0xf]);
+            sink.writeByte(HEX_DIGITS[b & 0xf]);
+        }
+        return 3;
+    }
+
+    private static long writeUtf8(@Nullable BufferedSink sink, String string, int begin, int end)
+            throws IOException {
+        if (begin >= end) {
+            return 0;
+        }
+        if (sink != null) {
+            sink.writeUtf8(string, begin, end);
+        }
+        return Utf8.size(string, begin, end);
+    }
+
+    private static long writeByte(@Nullable BufferedSink sink, int b) throws IOException {
+        if (sink != null) {
+            sink.writeByte(b);
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,35 @@
+package com.angcyo.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retrofit接口方法的请求优先级, 超过并发限制时优先级高的先执行, 见 {@link ConcurrencyLimiter}.
+ * 异步请求在交给OkHttp的Dispatcher之前也按优先级排队, 见 {@link PriorityCallAdapterFactory}.
+ * <pre>
+ *     &#64;Priority(Priority.HIGH)
+ *     &#64;GET("user/info")
+ *     Observable&lt;ResponseBody&gt; userInfo();
+ * </pre>
+ * 小于0的请求(预加载, 统计, 下载等)只能使用 {@link ConcurrencyLimiter#LOW_PRIORITY_RATIO} 比例的名额,
+ * 剩下的留给用户正在等待的请求.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Priority {
+
+    int HIGH = 10;
+    int NORMAL = 0;
+    int LOW = -10;
+
+    int value();
+}
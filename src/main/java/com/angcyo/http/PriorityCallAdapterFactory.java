@@ -0,0 +1,288 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按 {@link Priority} 把Retrofit的异步请求交给OkHttp的 {@link Dispatcher}.
+ * <p>
+ * Dispatcher的等待队列是先进先出的, 超过 maxRequestsPerHost 的请求会排在所有先到的请求之后,
+ * {@link ConcurrencyLimiter} 只能对已经拿到线程的请求排序. 这里在交给Dispatcher之前按优先级排队,
+ * 只有Dispatcher还有空位时才enqueue, 所以交给Dispatcher的请求都能立即拿到线程, 优先级从头到尾有效.
+ * <p>
+ * 同步的 {@link Call#execute()} 在调用线程执行, 不经过这里; 直接使用OkHttpClient发起的请求不经过这里, 但会占用Dispatcher的名额.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class PriorityCallAdapterFactory extends CallAdapter.Factory {
+
+    private PriorityCallAdapterFactory() {
+    }
+
+    public static PriorityCallAdapterFactory create() {
+        return new PriorityCallAdapterFactory();
+    }
+
+    @Override
+    public CallAdapter<?, ?> get(Type returnType, Annotation[] annotations, Retrofit retrofit) {
+        if (!(retrofit.callFactory() instanceof OkHttpClient)) {
+            return null;
+        }
+        final Gate gate = Gate.of(((OkHttpClient) retrofit.callFactory()).dispatcher());
+        final CallAdapter<Object, Object> delegate =
+                (CallAdapter<Object, Object>) retrofit.nextCallAdapter(this, returnType, annotations);
+        return new CallAdapter<Object, Object>() {
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @Override
+            public Object adapt(Call<Object> call) {
+                return delegate.adapt(new PriorityCall(call, gate));
+            }
+        };
+    }
+
+    /**
+     * 等待交给Dispatcher的请求数量
+     */
+    static int queueSize(@NonNull Dispatcher dispatcher) {
+        return Gate.of(dispatcher).queueSize();
+    }
+
+    /**
+     * 一个Dispatcher对应一个, 共用Dispatcher的client共用同一个排队
+     */
+    static final class Gate {
+        private static final ConcurrentHashMap<Dispatcher, Gate> gates = new ConcurrentHashMap<>();
+
+        final Dispatcher dispatcher;
+        private final TreeSet<Pending> queue = new TreeSet<>();
+        private final Map<String, Integer> runningPerHost = new HashMap<>();
+        private int running;
+        private long sequence;
+
+        private Gate(Dispatcher dispatcher) {
+            this.dispatcher = dispatcher;
+        }
+
+        static Gate of(Dispatcher dispatcher) {
+            Gate gate = gates.get(dispatcher);
+            if (gate == null) {
+                gate = new Gate(dispatcher);
+                Gate exist = gates.putIfAbsent(dispatcher, gate);
+                if (exist != null) {
+                    gate = exist;
+                }
+            }
+            return gate;
+        }
+
+        Pending newPending(int priority, String host, Runnable start) {
+            synchronized (this) {
+                return new Pending(priority, sequence++, host, start);
+            }
+        }
+
+        void enqueue(Pending pending) {
+            synchronized (this) {
+                queue.add(pending);
+            }
+            promote();
+        }
+
+        /**
+         * @return false 已经交给了Dispatcher
+         */
+        synchronized boolean cancel(Pending pending) {
+            return queue.remove(pending);
+        }
+
+        void finished(String host) {
+            synchronized (this) {
+                running--;
+                Integer count = runningPerHost.get(host);
+                if (count == null || count <= 1) {
+                    runningPerHost.remove(host);
+                } else {
+                    runningPerHost.put(host, count - 1);
+                }
+            }
+            promote();
+        }
+
+        synchronized int queueSize() {
+            return queue.size();
+        }
+
+        /**
+         * 按优先级把Dispatcher可以立即执行的请求交出去, 某个host满了不影响其他host
+         */
+        private void promote() {
+            List<Pending> ready = null;
+            synchronized (this) {
+                int maxRequests = dispatcher.getMaxRequests();
+                int maxRequestsPerHost = dispatcher.getMaxRequestsPerHost();
+                Iterator<Pending> iterator = queue.iterator();
+                while (iterator.hasNext() && running < maxRequests) {
+                    Pending pending = iterator.next();
+                    Integer count = runningPerHost.get(pending.host);
+                    int hostRunning = count == null ? 0 : count;
+                    if (hostRunning >= maxRequestsPerHost) {
+                        continue;
+                    }
+                    iterator.remove();
+                    running++;
+                    runningPerHost.put(pending.host, hostRunning + 1);
+                    if (ready == null) {
+                        ready = new ArrayList<>();
+                    }
+                    ready.add(pending);
+                }
+            }
+            if (ready != null) {
+                for (Pending pending : ready) {
+                    pending.start.run();
+                }
+            }
+        }
+    }
+
+    static final class Pending implements Comparable<Pending> {
+        final int priority;
+        final long sequence;
+        final String host;
+        final Runnable start;
+
+        Pending(int priority, long sequence, String host, Runnable start) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.host = host;
+            this.start = start;
+        }
+
+        @Override
+        public int compareTo(@NonNull Pending o) {
+            if (priority != o.priority) {
+                return priority > o.priority ? -1 : 1;
+            }
+            return sequence < o.sequence ? -1 : (sequence == o.sequence ? 0 : 1);
+        }
+    }
+
+    private static final class PriorityCall implements Call<Object> {
+        final Call<Object> delegate;
+        final Gate gate;
+
+        private boolean executed;
+        private volatile Pending pending;
+        private volatile Callback<Object> callback;
+
+        PriorityCall(Call<Object> delegate, Gate gate) {
+            this.delegate = delegate;
+            this.gate = gate;
+        }
+
+        @Override
+        public Response<Object> execute() throws IOException {
+            synchronized (this) {
+                if (executed) {
+                    throw new IllegalStateException("Already executed.");
+                }
+                executed = true;
+            }
+            return delegate.execute();
+        }
+
+        @Override
+        public void enqueue(final Callback<Object> callback) {
+            synchronized (this) {
+                if (executed) {
+                    throw new IllegalStateException("Already executed.");
+                }
+                executed = true;
+            }
+            final Request request;
+            try {
+                request = delegate.request();
+            } catch (RuntimeException e) {
+                //创建请求失败, 交给Retrofit回调onFailure
+                delegate.enqueue(callback);
+                return;
+            }
+            final String host = request.url().host();
+            this.callback = callback;
+            pending = gate.newPending(ConcurrencyLimitInterceptor.priority(request), host, new Runnable() {
+                @Override
+                public void run() {
+                    delegate.enqueue(new Callback<Object>() {
+                        @Override
+                        public void onResponse(Call<Object> call, Response<Object> response) {
+                            gate.finished(host);
+                            callback.onResponse(PriorityCall.this, response);
+                        }
+
+                        @Override
+                        public void onFailure(Call<Object> call, Throwable t) {
+                            gate.finished(host);
+                            callback.onFailure(PriorityCall.this, t);
+                        }
+                    });
+                }
+            });
+            gate.enqueue(pending);
+        }
+
+        @Override
+        public synchronized boolean isExecuted() {
+            return executed;
+        }
+
+        @Override
+        public void cancel() {
+            delegate.cancel();
+            Pending pending = this.pending;
+            if (pending != null && gate.cancel(pending)) {
+                //还在排队, 不会再交给Dispatcher, 和OkHttp一样回调取消
+                callback.onFailure(this, new IOException("Canceled"));
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return delegate.isCanceled();
+        }
+
+        @Override
+        public Call<Object> clone() {
+            return new PriorityCall(delegate.clone(), gate);
+        }
+
+        @Override
+        public Request request() {
+            return delegate.request();
+        }
+    }
+}
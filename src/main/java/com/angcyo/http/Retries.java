@@ -0,0 +1,29 @@
+package com.angcyo.http;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retrofit接口方法在网络层最多重试的次数, 优先于 {@link Retry#MAX_RETRIES}, 见 {@link RetryInterceptor}.
+ * <pre>
+ *     &#64;Retries(2)
+ *     &#64;GET("config")
+ *     Observable&lt;ResponseBody&gt; config();
+ * </pre>
+ * 非幂等的请求仍然需要 Idempotency-Key 请求头才会重试.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Retries {
+
+    int value();
+}
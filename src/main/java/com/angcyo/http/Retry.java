@@ -0,0 +1,239 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 重试配置和统计, 网络层见 {@link RetryInterceptor}, Rx层见 {@link #transformer(String, int)}.
+ * <p>
+ * 重试间隔为指数退避加随机抖动(full jitter): random(0, min(MAX_DELAY_MS, BASE_DELAY_MS * 2^n)),
+ * 服务端返回 Retry-After 时优先使用. 所有重试共用 {@link #BUDGET}.
+ * <p>
+ * 默认不重试, 重试会放大服务端的压力, 需要的接口通过 {@link Retries} 或者 {@link #transformer(String, int)} 开启.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class Retry {
+
+    /**
+     * 网络层所有请求默认最多重试的次数, 0表示不重试, 单个接口见 {@link Retries}
+     */
+    public static int MAX_RETRIES = 0;
+    public static long BASE_DELAY_MS = 200;
+    public static long MAX_DELAY_MS = 5_000;
+
+    /**
+     * 需要重试的状态码
+     */
+    public static final List<Integer> RETRY_CODES = new ArrayList<>();
+
+    /**
+     * 可以安全重试的请求方法, 其他方法只有带上 Idempotency-Key 请求头时才会重试
+     */
+    public static final List<String> IDEMPOTENT_METHODS = new ArrayList<>();
+
+    public static RetryBudget BUDGET = new RetryBudget(0.1, 1, 10);
+
+    private static final ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<>();
+    private static final Random random = new Random();
+
+    static {
+        RETRY_CODES.add(408);
+        RETRY_CODES.add(429);
+        RETRY_CODES.add(500);
+        RETRY_CODES.add(502);
+        RETRY_CODES.add(503);
+        RETRY_CODES.add(504);
+
+        IDEMPOTENT_METHODS.add("GET");
+        IDEMPOTENT_METHODS.add("HEAD");
+        IDEMPOTENT_METHODS.add("OPTIONS");
+        IDEMPOTENT_METHODS.add("PUT");
+        IDEMPOTENT_METHODS.add("DELETE");
+        IDEMPOTENT_METHODS.add("TRACE");
+    }
+
+    private Retry() {
+    }
+
+    /**
+     * 第retry次重试之前的等待时间
+     *
+     * @param retry 从0开始
+     */
+    static long delayMs(int retry) {
+        long max = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << Math.min(retry, 20));
+        if (max <= 0) {
+            return 0;
+        }
+        synchronized (random) {
+            return (long) (random.nextDouble() * max);
+        }
+    }
+
+    /**
+     * 可以重试的异常, 取消, 无网络, 熔断和本地限流超时不重试
+     */
+    static boolean isRetryable(Throwable e) {
+        if (e instanceof NonetIOException || e instanceof CircuitOpenException ||
+                e instanceof ConcurrencyLimitException ||
+                e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException)) {
+            return false;
+        }
+        if (e instanceof retrofit2.HttpException) {
+            return RETRY_CODES.contains(((retrofit2.HttpException) e).code());
+        }
+        return e instanceof IOException && !"Canceled".equals(e.getMessage());
+    }
+
+    /**
+     * Rx层的重试, 只用于幂等的请求, 放在请求的Observable之后:
+     * <pre>
+     *     Http.create(Api.class).config()
+     *          .compose(Retry.&lt;ResponseBody&gt;transformer("config", 2))
+     *          .compose(Http.transformerBean(Config.class))
+     * </pre>
+     * 和 {@link RetryInterceptor} 一起使用时, 重试次数会叠加.
+     *
+     * @param maxRetries 最多重试的次数
+     */
+    public static <T> Observable.Transformer<T, T> transformer(@NonNull final String endpoint, final int maxRetries) {
+        return new Observable.Transformer<T, T>() {
+            @Override
+            public Observable<T> call(final Observable<T> source) {
+                return Observable.defer(new Func0<Observable<T>>() {
+                    @Override
+                    public Observable<T> call() {
+                        final Metric metric = metric(endpoint);
+                        final long startTime = System.nanoTime();
+                        final AtomicLong attemptTime = new AtomicLong(startTime);
+                        final AtomicInteger retry = new AtomicInteger();
+                        metric.requestCount.incrementAndGet();
+                        BUDGET.deposit();
+                        return source.doOnSubscribe(new Action0() {
+                            @Override
+                            public void call() {
+                                attemptTime.set(System.nanoTime());
+                            }
+                        }).retryWhen(new Func1<Observable<? extends Throwable>, Observable<?>>() {
+                            @Override
+                            public Observable<?> call(Observable<? extends Throwable> errors) {
+                                return errors.flatMap(new Func1<Throwable, Observable<?>>() {
+                                    @Override
+                                    public Observable<?> call(Throwable e) {
+                                        int count = retry.get();
+                                        if (!isRetryable(e) || count >= maxRetries) {
+                                            if (count > 0) {
+                                                metric.exhaustedCount.incrementAndGet();
+                                            }
+                                            return Observable.error(e);
+                                        }
+                                        if (!BUDGET.tryWithdraw()) {
+                                            metric.budgetRejectedCount.incrementAndGet();
+                                            return Observable.error(e);
+                                        }
+                                        retry.incrementAndGet();
+                                        metric.retryCount.incrementAndGet();
+                                        return Observable.timer(delayMs(count), TimeUnit.MILLISECONDS, Schedulers.computation());
+                                    }
+                                });
+                            }
+                        }).doOnNext(new Action1<T>() {
+                            boolean recorded;
+
+                            @Override
+                            public void call(T t) {
+                                if (!recorded && retry.get() > 0) {
+                                    recorded = true;
+                                    metric.recoveredCount.incrementAndGet();
+                                    //最后一次请求之前的时间都是额外的耗时
+                                    metric.extraLatencyMs.addAndGet(
+                                            TimeUnit.NANOSECONDS.toMillis(attemptTime.get() - startTime));
+                                }
+                            }
+                        });
+                    }
+                });
+            }
+        };
+    }
+
+    static Metric metric(String endpoint) {
+        Metric metric = metrics.get(endpoint);
+        if (metric == null) {
+            metric = new Metric(endpoint);
+            Metric exist = metrics.putIfAbsent(endpoint, metric);
+            if (exist != null) {
+                metric = exist;
+            }
+        }
+        return metric;
+    }
+
+    /**
+     * 每个endpoint的重试统计
+     */
+    public static List<Metric> stats() {
+        return new ArrayList<>(metrics.values());
+    }
+
+    public static void clearStats() {
+        metrics.clear();
+    }
+
+    public static final class Metric {
+        public final String endpoint;
+        public final AtomicLong requestCount = new AtomicLong();
+        public final AtomicLong retryCount = new AtomicLong();
+        /**
+         * 重试之后成功的请求数
+         */
+        public final AtomicLong recoveredCount = new AtomicLong();
+        /**
+         * 重试之后仍然失败的请求数
+         */
+        public final AtomicLong exhaustedCount = new AtomicLong();
+        /**
+         * 预算不足, 放弃重试的次数
+         */
+        public final AtomicLong budgetRejectedCount = new AtomicLong();
+        /**
+         * 重试带来的额外耗时, 包括失败的请求和等待时间
+         */
+        public final AtomicLong extraLatencyMs = new AtomicLong();
+
+        Metric(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public String toString() {
+            return endpoint +
+                    " request:" + requestCount.get() +
+                    " retry:" + retryCount.get() +
+                    " recovered:" + recoveredCount.get() +
+                    " exhausted:" + exhaustedCount.get() +
+                    " budgetRejected:" + budgetRejectedCount.get() +
+                    " extra:" + extraLatencyMs.get() + "ms";
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.angcyo.http;
+
+/**
+ * 重试预算, 令牌桶:
+ * 每个原始请求存入 {@link #ratio} 个令牌, 每次重试取出1个令牌, 令牌不足时不再重试.
+ * 另外每秒补充 {@link #minPerSecond} 个令牌, 保证请求很少时也能重试.
+ * <p>
+ * 后端出问题时, 所有请求都会失败, 如果每个请求都重试, 压力会成倍增加.
+ * ratio=0.1 时, 重试最多只会增加约10%的请求.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final long capacity;
+
+    /**
+     * 放大 {@link #SCALE} 倍的令牌数量
+     */
+    private long tokens;
+    private long lastRefillTime;
+
+    /**
+     * @param ratio        每个请求存入的令牌数
+     * @param minPerSecond 每秒补充的令牌数
+     * @param maxTokens    最多存储的令牌数
+     */
+    public RetryBudget(double ratio, double minPerSecond, int maxTokens) {
+        this.ratio = ratio;
+        this.minPerSecond = minPerSecond;
+        this.capacity = maxTokens * SCALE;
+        this.tokens = capacity;
+        this.lastRefillTime = System.nanoTime();
+    }
+
+    /**
+     * 发起原始请求时调用
+     */
+    public synchronized void deposit() {
+        refill();
+        tokens = Math.min(capacity, tokens + (long) (ratio * SCALE));
+    }
+
+    /**
+     * 重试之前调用
+     *
+     * @return false 预算不足, 不能重试
+     */
+    public synchronized boolean tryWithdraw() {
+        refill();
+        if (tokens < SCALE) {
+            return false;
+        }
+        tokens -= SCALE;
+        return true;
+    }
+
+    public synchronized double available() {
+        refill();
+        return tokens / (double) SCALE;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long elapsed = now - lastRefillTime;
+        long add = (long) (elapsed / 1_000_000_000.0 * minPerSecond * SCALE);
+        if (add > 0) {
+            tokens = Math.min(capacity, tokens + add);
+            lastRefillTime = now;
+        }
+    }
+}
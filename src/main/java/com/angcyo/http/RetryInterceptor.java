@@ -0,0 +1,160 @@
+package com.angcyo.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.internal.http.HttpDate;
+import retrofit2.Invocation;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网络层的重试, 只重试幂等的请求, 配置见 {@link Retry}.
+ * 重试次数来自Retrofit接口方法上的 {@link Retries} 注解, 没有注解时使用 {@link Retry#MAX_RETRIES}.
+ * <p>
+ * 统计的endpoint为 method + url的path. 只读缓存的请求直接放行, 缓存未命中的504不会被重试.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class RetryInterceptor implements Interceptor {
+
+    /**
+     * 注解查找的缓存
+     */
+    private static final Map<Method, Integer> methodRetries = new ConcurrentHashMap<>();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        int maxRetries = maxRetries(request);
+        if (maxRetries <= 0 || !isIdempotent(request) || HttpCache.isCacheOnly(request)) {
+            return chain.proceed(request);
+        }
+
+        Retry.Metric metric = Retry.metric(request.method() + " " + request.url().encodedPath());
+        metric.requestCount.incrementAndGet();
+        Retry.BUDGET.deposit();
+
+        long startTime = System.nanoTime();
+        for (int retry = 0; ; retry++) {
+            long attemptTime = System.nanoTime();
+            Response response = null;
+            IOException error = null;
+            try {
+                response = chain.proceed(request);
+            } catch (IOException e) {
+                error = e;
+            }
+
+            //没有networkResponse的响应来自缓存, 包括缓存未命中的504, 重试也不会访问网络
+            boolean retryable = error == null ?
+                    response.networkResponse() != null && Retry.RETRY_CODES.contains(response.code()) :
+                    !chain.call().isCanceled() && Retry.isRetryable(error);
+            if (!retryable || retry >= maxRetries || !Retry.BUDGET.tryWithdraw()) {
+                if (retryable && retry < maxRetries) {
+                    metric.budgetRejectedCount.incrementAndGet();
+                }
+                if (retry > 0) {
+                    if (error == null && response.isSuccessful()) {
+                        metric.recoveredCount.incrementAndGet();
+                    } else {
+                        metric.exhaustedCount.incrementAndGet();
+                    }
+                    //最后一次请求之前的时间都是额外的耗时
+                    metric.extraLatencyMs.addAndGet(TimeUnit.NANOSECONDS.toMillis(attemptTime - startTime));
+                }
+                if (error != null) {
+                    throw error;
+                }
+                return response;
+            }
+
+            long delay = Retry.delayMs(retry);
+            if (response != null) {
+                delay = retryAfter(response, delay);
+                closeBody(response);
+            }
+            metric.retryCount.incrementAndGet();
+            sleep(chain, delay);
+        }
+    }
+
+    private static boolean isIdempotent(Request request) {
+        return Retry.IDEMPOTENT_METHODS.contains(request.method()) || request.header("Idempotency-Key") != null;
+    }
+
+    static int maxRetries(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null) {
+            return Retry.MAX_RETRIES;
+        }
+        Method method = invocation.method();
+        Integer retries = methodRetries.get(method);
+        if (retries == null) {
+            Retries annotation = method.getAnnotation(Retries.class);
+            //没有注解时缓存-1, 每次读取最新的 Retry.MAX_RETRIES
+            retries = annotation == null ? -1 : annotation.value();
+            methodRetries.put(method, retries);
+        }
+        return retries < 0 ? Retry.MAX_RETRIES : retries;
+    }
+
+    /**
+     * 支持秒数和HTTP日期两种格式的 Retry-After, 不超过 {@link Retry#MAX_DELAY_MS}
+     */
+    static long retryAfter(Response response, long defaultDelay) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter == null) {
+            return defaultDelay;
+        }
+        long delay;
+        try {
+            delay = TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            Date date = HttpDate.parse(retryAfter.trim());
+            if (date == null) {
+                return defaultDelay;
+            }
+            delay = date.getTime() - System.currentTimeMillis();
+        }
+        return Math.max(0, Math.min(Retry.MAX_DELAY_MS, delay));
+    }
+
+    /**
+     * 等待期间请求被取消, 立即结束
+     */
+    private static void sleep(Chain chain, long delayMs) throws IOException {
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMs);
+        try {
+            while (true) {
+                if (chain.call().isCanceled()) {
+                    throw new IOException("Canceled");
+                }
+                long remain = TimeUnit.NANOSECONDS.toMillis(end - System.nanoTime());
+                if (remain <= 0) {
+                    return;
+                }
+                Thread.sleep(Math.min(remain, 50));
+            }
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static void closeBody(Response response) {
+        ResponseBody body = response.body();
+        if (body != null) {
+            body.close();
+        }
+    }
+}
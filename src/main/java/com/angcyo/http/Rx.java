@@ -139,7 +139,7 @@ public class Rx<Rx> extends Observable<Rx> {
             @Override
             public Observable<T> call(Observable<T> tObservable) {
                 return tObservable.unsubscribeOn(Schedulers.io())
-                        .subscribeOn(Schedulers.io())
+                        .subscribeOn(HttpSchedulers.network())
                         .observeOn(AndroidSchedulers.mainThread());
             }
         };
@@ -0,0 +1,139 @@
+package com.angcyo.http;
+
+import android.support.annotation.NonNull;
+import rx.Observable;
+import rx.functions.Action0;
+import rx.functions.Func0;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 相同key的订阅在进行中时, 共享同一个上游, 解析后的结果分发给所有订阅者.
+ * <pre>
+ *     Http.create(Api.class).profile()
+ *          .compose(Http.transformerBean(Profile.class))
+ *          .compose(SingleFlight.&lt;Profile&gt;transformer("profile"))
+ * </pre>
+ * 所有订阅者都取消订阅后, 上游才会被取消; 上游结束后, 新的订阅会重新发起请求.
+ * <p>
+ * 网络层的合并见 {@link SingleFlightInterceptor}.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public final class SingleFlight {
+
+    private static final ConcurrentHashMap<String, Observable<?>> flights = new ConcurrentHashMap<>();
+
+    private static final AtomicLong subscribeCount = new AtomicLong();
+    private static final AtomicLong coalescedCount = new AtomicLong();
+
+    private SingleFlight() {
+    }
+
+    public static <T> Observable.Transformer<T, T> transformer(@NonNull final String key) {
+        return new Observable.Transformer<T, T>() {
+            @Override
+            public Observable<T> call(final Observable<T> source) {
+                return Observable.defer(new Func0<Observable<T>>() {
+                    @Override
+                    public Observable<T> call() {
+                        return join(key, source);
+                    }
+                });
+            }
+        };
+    }
+
+    private static <T> Observable<T> join(final String key, Observable<T> source) {
+        subscribeCount.incrementAndGet();
+        Observable<T> flight = (Observable<T>) flights.get(key);
+        if (flight != null) {
+            coalescedCount.incrementAndGet();
+            return flight;
+        }
+
+        final AtomicReference<Observable<T>> reference = new AtomicReference<>();
+        Action0 remove = new Action0() {
+            @Override
+            public void call() {
+                flights.remove(key, reference.get());
+            }
+        };
+        //replay(1): 已经收到数据, 还没有结束时加入的订阅者也能拿到结果
+        Observable<T> newFlight = source
+                .doOnTerminate(remove)
+                .doOnUnsubscribe(remove)
+                .replay(1)
+                .refCount();
+        reference.set(newFlight);
+
+        flight = (Observable<T>) flights.putIfAbsent(key, newFlight);
+        if (flight != null) {
+            coalescedCount.incrementAndGet();
+            return flight;
+        }
+        return newFlight;
+    }
+
+    public static Stats stats() {
+        return new Stats(SingleFlightInterceptor.callCount.get(),
+                SingleFlightInterceptor.coalescedCount.get(),
+                SingleFlightInterceptor.fallbackCount.get(),
+                SingleFlightInterceptor.inflightCount(),
+                subscribeCount.get(),
+                coalescedCount.get(),
+                flights.size());
+    }
+
+    public static class Stats {
+        /**
+         * 实际发起的网络调用次数
+         */
+        public final long callCount;
+        /**
+         * 被合并, 直接使用其他调用结果的次数
+         */
+        public final long coalescedCount;
+        /**
+         * 等待之后无法共享结果, 自己发起调用的次数
+         */
+        public final long fallbackCount;
+        public final int inflightCount;
+        /**
+         * Rx层的订阅次数
+         */
+        public final long subscribeCount;
+        /**
+         * Rx层被合并的订阅次数
+         */
+        public final long subscribeCoalescedCount;
+        public final int subscribeInflightCount;
+
+        Stats(long callCount, long coalescedCount, long fallbackCount, int inflightCount,
+              long subscribeCount, long subscribeCoalescedCount, int subscribeInflightCount) {
+            this.callCount = callCount;
+            this.coalescedCount = coalescedCount;
+            this.fallbackCount = fallbackCount;
+            this.inflightCount = inflightCount;
+            this.subscribeCount = subscribeCount;
+            this.subscribeCoalescedCount = subscribeCoalescedCount;
+            this.subscribeInflightCount = subscribeInflightCount;
+        }
+
+        @Override
+        public String toString() {
+            return "call:" + callCount +
+                    " coalesced:" + coalescedCount +
+                    " fallback:" + fallbackCount +
+                    " inflight:" + inflightCount +
+                    " subscribe:" + subscribeCount +
+                    " subscribeCoalesced:" + subscribeCoalescedCount +
+                    " subscribeInflight:" + subscribeInflightCount;
+        }
+    }
+}
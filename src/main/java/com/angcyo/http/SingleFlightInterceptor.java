@@ -0,0 +1,219 @@
+package com.angcyo.http;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import retrofit2.Invocation;
+import retrofit2.http.Streaming;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 合并同时进行中的相同GET请求, 只有第一个请求会发起网络调用, 其他请求等待它的结果.
+ * <p>
+ * 相同的判断: method, url 以及 {@link #KEY_HEADERS} 中的请求头.
+ * 只有在有请求等待时, 响应体才会被完整读入内存后共享; 没有等待的请求时响应原样返回, 不影响流式读取.
+ * 超过 {@link #MAX_SHARE_BYTES} 的响应不共享, 等待的请求各自发起调用.
+ * Content-Length已知时直接判断, 未知时(gzip, chunked)读取到 MAX_SHARE_BYTES 为止再判断.
+ * 带 {@link Streaming} 注解的接口不参与合并.
+ * 第一个请求被取消时, 等待的请求也会各自发起调用; 等待的请求被取消时, 每 {@link #CANCEL_CHECK_MS} 检查一次并立即结束等待.
+ * 等待的时间不超过call timeout, 没有设置时不超过read timeout, 超过后各自发起调用.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class SingleFlightInterceptor implements Interceptor {
+
+    /**
+     * 参与相同判断的请求头
+     */
+    public static final List<String> KEY_HEADERS = new CopyOnWriteArrayList<>(
+            Arrays.asList("Authorization", "Cookie", "Accept", "Accept-Language", "Range"));
+
+    /**
+     * 可以共享的最大响应体
+     */
+    public static long MAX_SHARE_BYTES = 1024 * 1024;
+
+    private static final long CANCEL_CHECK_MS = 100;
+
+    private static final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    static final AtomicLong callCount = new AtomicLong();
+    static final AtomicLong coalescedCount = new AtomicLong();
+    static final AtomicLong fallbackCount = new AtomicLong();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!Http.SINGLE_FLIGHT || !"GET".equals(request.method()) || isStreaming(request)) {
+            return chain.proceed(request);
+        }
+
+        String key = key(request);
+        Flight flight = new Flight();
+        Flight leader = flights.putIfAbsent(key, flight);
+        if (leader != null) {
+            Response response = leader.await(chain);
+            if (response != null) {
+                coalescedCount.incrementAndGet();
+                return response.newBuilder().request(request).build();
+            }
+            //无法共享, 自己请求
+            fallbackCount.incrementAndGet();
+            return chain.proceed(request);
+        }
+
+        callCount.incrementAndGet();
+        boolean settled = false;
+        try {
+            Response response = chain.proceed(request);
+            ResponseBody body = response.body();
+            //没有等待的请求时不读取响应体, 已知长度超过限制时直接放弃
+            if (body == null || flight.waiters.get() == 0 || body.contentLength() > MAX_SHARE_BYTES) {
+                return response;
+            }
+            Buffer buffer;
+            try {
+                BufferedSource source = body.source();
+                //request返回true, 说明响应体超过限制, 已经读取的数据留在source中, 响应不受影响
+                if (source.request(MAX_SHARE_BYTES + 1)) {
+                    return response;
+                }
+                buffer = source.buffer().clone();
+            } catch (IOException e) {
+                body.close();
+                throw e;
+            }
+            body.close();
+            flights.remove(key, flight);
+            flight.complete(response.newBuilder().body(null).build(), body.contentType(), buffer);
+            settled = true;
+            return flight.newResponse();
+        } catch (IOException e) {
+            flights.remove(key, flight);
+            flight.fail(chain.call().isCanceled() ? null : e);
+            settled = true;
+            throw e;
+        } finally {
+            if (!settled) {
+                //不共享(包括RuntimeException和Error), 等待的请求自己发起调用
+                flights.remove(key, flight);
+                flight.fail(null);
+            }
+        }
+    }
+
+    static boolean isStreaming(Request request) {
+        Invocation invocation = request.tag(Invocation.class);
+        return invocation != null && invocation.method().isAnnotationPresent(Streaming.class);
+    }
+
+    private static String key(Request request) {
+        StringBuilder builder = new StringBuilder(request.method())
+                .append(' ')
+                .append(request.url());
+        for (String name : KEY_HEADERS) {
+            String value = request.header(name);
+            if (value != null) {
+                builder.append('\n').append(name).append(':').append(value);
+            }
+        }
+        return builder.toString();
+    }
+
+    static int inflightCount() {
+        return flights.size();
+    }
+
+    private static final class Flight {
+        final CountDownLatch latch = new CountDownLatch(1);
+        /**
+         * 等待这个请求结果的数量
+         */
+        final AtomicInteger waiters = new AtomicInteger();
+
+        Response template;
+        MediaType contentType;
+        Buffer buffer;
+        /**
+         * 为null并且没有结果时, 表示等待的请求需要自己发起调用
+         */
+        IOException error;
+
+        void complete(Response template, MediaType contentType, Buffer buffer) {
+            this.template = template;
+            this.contentType = contentType;
+            this.buffer = buffer;
+            latch.countDown();
+        }
+
+        void fail(IOException error) {
+            this.error = error;
+            latch.countDown();
+        }
+
+        /**
+         * 每个请求拿到独立的响应体, {@link Buffer#clone()} 共享底层数据, 不会复制
+         */
+        Response newResponse() {
+            Buffer body = buffer.clone();
+            return template.newBuilder()
+                    .body(ResponseBody.create(contentType, body.size(), body))
+                    .build();
+        }
+
+        /**
+         * @return null 表示需要自己请求
+         */
+        Response await(Chain chain) throws IOException {
+            Call call = chain.call();
+            long timeoutNanos = call.timeout().timeoutNanos();
+            if (timeoutNanos <= 0) {
+                timeoutNanos = TimeUnit.MILLISECONDS.toNanos(chain.readTimeoutMillis());
+            }
+            long deadline = System.nanoTime() + timeoutNanos;
+            waiters.incrementAndGet();
+            try {
+                while (!latch.await(CANCEL_CHECK_MS, TimeUnit.MILLISECONDS)) {
+                    if (call.isCanceled()) {
+                        throw new IOException("Canceled");
+                    }
+                    if (timeoutNanos > 0 && System.nanoTime() - deadline >= 0) {
+                        return null;
+                    }
+                }
+            } catch (InterruptedException e) {
+                throw new InterruptedIOException();
+            } finally {
+                waiters.decrementAndGet();
+            }
+            if (call.isCanceled()) {
+                throw new IOException("Canceled");
+            }
+            if (buffer != null) {
+                return newResponse();
+            }
+            if (error != null) {
+                throw error;
+            }
+            return null;
+        }
+    }
+}
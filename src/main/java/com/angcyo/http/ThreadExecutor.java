@@ -3,20 +3,50 @@ package com.angcyo.http;
 import android.os.Handler;
 import android.os.Looper;
 
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 主线程调度器
  * Created by robi on 2016-06-02 20:47.
+ * <p>
+ * 后台线程池有界: 最多 {@link #MAX_THREAD_COUNT} 个线程, 排队 {@link #QUEUE_SIZE} 个任务.
+ * 饱和之后, 后台线程提交的任务在提交线程执行; 主线程提交的任务不在主线程执行, 也不抛出异常,
+ * 而是post到主线程, {@link #SATURATION_RETRY_MS} 之后重新提交, 直到线程池有空位.
+ * <p>
+ * {@link #VIRTUAL_THREAD} 为true并且运行环境支持时(JDK 21+), 每个任务一个虚拟线程, 适合阻塞IO的任务.
+ * 以上配置请在第一次调用 {@link #instance()} 之前修改.
  */
 class ThreadExecutor {
-    static private ThreadExecutor instance;
+
+    public static int CORE_THREAD_COUNT = 2;
+    public static int MAX_THREAD_COUNT = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    public static int QUEUE_SIZE = 128;
+    public static boolean VIRTUAL_THREAD = false;
+    public static long SATURATION_RETRY_MS = 16;
+
+    private static volatile ThreadExecutor instance;
+
     private final Executor mCallbackPoster;
     private final ExecutorService mExecutorService;
     private final Handler handler = new Handler(Looper.getMainLooper());
 
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicInteger queueCount = new AtomicInteger();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong totalRunNanos = new AtomicLong();
+
     private ThreadExecutor() {
         mCallbackPoster = new Executor() {
             @Override
@@ -25,18 +55,154 @@ class ThreadExecutor {
             }
         };
 
-        mExecutorService = Executors.newCachedThreadPool();
+        ExecutorService executorService = VIRTUAL_THREAD ? newVirtualThreadExecutor() : null;
+        if (executorService == null) {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(CORE_THREAD_COUNT, MAX_THREAD_COUNT,
+                    30, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<Runnable>(QUEUE_SIZE),
+                    new NamedThreadFactory("http-thread"),
+                    new SaturationPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            executorService = executor;
+        }
+        mExecutorService = executorService;
     }
 
     public static ThreadExecutor instance() {
-        return instance == null ? instance = new ThreadExecutor() : instance;
+        if (instance == null) {
+            synchronized (ThreadExecutor.class) {
+                if (instance == null) {
+                    instance = new ThreadExecutor();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * JDK 21+ 的 Executors.newVirtualThreadPerTaskExecutor(), 不支持时返回null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     public void onMain(Runnable runnable) {
         mCallbackPoster.execute(runnable);
     }
 
+    /**
+     * 在后台线程执行, 线程池关闭后抛出 {@link RejectedExecutionException}
+     */
     public void onThread(Runnable runnable) {
-        mExecutorService.execute(runnable);
+        queueCount.incrementAndGet();
+        mExecutorService.execute(new Task(runnable));
+    }
+
+    public Stats stats() {
+        long completed = completedCount.get();
+        return new Stats(activeCount.get(), queueCount.get(), completed, rejectedCount.get(),
+                completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get() / completed),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()),
+                completed == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalRunNanos.get() / completed));
+    }
+
+    private final class Task implements Runnable {
+        final Runnable runnable;
+        final long submitTime = System.nanoTime();
+
+        Task(Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            long startTime = System.nanoTime();
+            long waitNanos = startTime - submitTime;
+            queueCount.decrementAndGet();
+            activeCount.incrementAndGet();
+            try {
+                runnable.run();
+            } finally {
+                activeCount.decrementAndGet();
+                completedCount.incrementAndGet();
+                totalWaitNanos.addAndGet(waitNanos);
+                totalRunNanos.addAndGet(System.nanoTime() - startTime);
+                long max;
+                do {
+                    max = maxWaitNanos.get();
+                } while (waitNanos > max && !maxWaitNanos.compareAndSet(max, waitNanos));
+            }
+        }
+    }
+
+    /**
+     * 线程和队列都满了
+     */
+    private final class SaturationPolicy implements RejectedExecutionHandler {
+        @Override
+        public void rejectedExecution(final Runnable r, final ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                queueCount.decrementAndGet();
+                throw new RejectedExecutionException("ThreadExecutor shutdown");
+            }
+            rejectedCount.incrementAndGet();
+            if (Looper.myLooper() == Looper.getMainLooper()) {
+                //不阻塞主线程, 稍后重新提交
+                handler.postDelayed(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (executor.isShutdown()) {
+                            queueCount.decrementAndGet();
+                        } else {
+                            executor.execute(r);
+                        }
+                    }
+                }, SATURATION_RETRY_MS);
+                return;
+            }
+            r.run();
+        }
+    }
+
+    public static class Stats {
+        public final int activeCount;
+        public final int queueSize;
+        public final long completedCount;
+        /**
+         * 饱和的次数, 包括在提交线程执行和主线程重新提交的任务
+         */
+        public final long rejectedCount;
+        /**
+         * 任务从提交到开始执行的时间
+         */
+        public final long avgWaitMs;
+        public final long maxWaitMs;
+        public final long avgRunMs;
+
+        Stats(int activeCount, int queueSize, long completedCount, long rejectedCount,
+              long avgWaitMs, long maxWaitMs, long avgRunMs) {
+            this.activeCount = activeCount;
+            this.queueSize = queueSize;
+            this.completedCount = completedCount;
+            this.rejectedCount = rejectedCount;
+            this.avgWaitMs = avgWaitMs;
+            this.maxWaitMs = maxWaitMs;
+            this.avgRunMs = avgRunMs;
+        }
+
+        @Override
+        public String toString() {
+            return "active:" + activeCount +
+                    " queue:" + queueSize +
+                    " completed:" + completedCount +
+                    " rejected:" + rejectedCount +
+                    " wait:" + avgWaitMs + "ms(max:" + maxWaitMs + "ms)" +
+                    " run:" + avgRunMs + "ms";
+        }
     }
 }
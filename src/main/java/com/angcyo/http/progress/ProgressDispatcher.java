@@ -0,0 +1,88 @@
+package com.angcyo.http.progress;
+
+import android.os.Handler;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 一次上传或下载的进度分发, 合并主线程还没来得及处理的进度.
+ * <p>
+ * IO线程调用 {@link #update} 只更新最新的进度, 不分配对象;
+ * 同一时间最多只有一个 post 在主线程排队, 执行时把合并后的进度交给所有监听器.
+ * 合并期间的 eachBytes 和 intervalTime 会累加, 网速的计算不受影响.
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+final class ProgressDispatcher implements Runnable {
+
+    private final Handler mHandler;
+    private final ProgressListener[] mListeners;
+    private final ProgressInfo mProgressInfo;
+
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+
+    /**
+     * 还没有分发的进度, 由 this 保护
+     */
+    private long mEachBytes;
+    private long mCurrentBytes;
+    private long mIntervalTime;
+    private boolean mFinish;
+    /**
+     * 有还没有分发的更新
+     */
+    private boolean mPending;
+
+    ProgressDispatcher(Handler handler, ProgressListener[] listeners, ProgressInfo progressInfo) {
+        this.mHandler = handler;
+        this.mListeners = listeners;
+        this.mProgressInfo = progressInfo;
+    }
+
+    /**
+     * @param eachBytes    距离上一次更新的字节数, -1表示读取结束
+     * @param currentBytes 已经传输的总字节数
+     * @param intervalTime 距离上一次更新的时间
+     */
+    void update(long eachBytes, long currentBytes, long intervalTime, boolean finish) {
+        synchronized (this) {
+            if (eachBytes < 0 || mEachBytes < 0) {
+                mEachBytes = -1;
+            } else {
+                mEachBytes += eachBytes;
+            }
+            mCurrentBytes = currentBytes;
+            mIntervalTime += intervalTime;
+            mFinish = finish;
+            mPending = true;
+        }
+        if (mScheduled.compareAndSet(false, true)) {
+            mHandler.post(this);
+        }
+    }
+
+    @Override
+    public void run() {
+        //先清除标记, 之后的更新会重新post, 不会丢失
+        mScheduled.set(false);
+        synchronized (this) {
+            //清除标记之后到这里的更新已经被这次合并, 它重新post的那次没有内容, 不重复分发
+            if (!mPending) {
+                return;
+            }
+            mPending = false;
+            mProgressInfo.setEachBytes(mEachBytes);
+            mProgressInfo.setCurrentbytes(mCurrentBytes);
+            mProgressInfo.setIntervalTime(mIntervalTime);
+            mProgressInfo.setFinish(mFinish);
+            mEachBytes = 0;
+            mIntervalTime = 0;
+        }
+        for (ProgressListener listener : mListeners) {
+            listener.onProgress(mProgressInfo);
+        }
+    }
+}
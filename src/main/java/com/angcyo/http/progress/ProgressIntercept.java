@@ -113,17 +113,13 @@ public class ProgressIntercept implements Interceptor {
 
         if (request.body() == null)
             return request;
-//        if (mRequestListeners.containsKey(key)) {
+        //没有监听的请求不包装, 避免每个请求都统计进度
         List<ProgressListener> listeners = mRequestListeners.get(key);
-        if (listeners == null) {
-            listeners = new LinkedList<>();
-            mRequestListeners.put(key, listeners);
-        }
+        if (listeners == null || listeners.isEmpty())
+            return request;
         return request.newBuilder()
                 .method(request.method(), new ProgressRequestBody(mHandler, request.body(), listeners, mRefreshTime))
                 .build();
-//        }
-//        return request;
     }
 
     public Response wrapResponseBody(Response response) {
@@ -145,17 +141,12 @@ public class ProgressIntercept implements Interceptor {
         if (response.body() == null)
             return response;
 
-//        if (mResponseListeners.containsKey(key)) {
         List<ProgressListener> listeners = mResponseListeners.get(key);
-        if (listeners == null) {
-            listeners = new LinkedList<>();
-            mResponseListeners.put(key, listeners);
-        }
+        if (listeners == null || listeners.isEmpty())
+            return response;
         return response.newBuilder()
                 .body(new ProgressResponseBody(mHandler, response.body(), listeners, mRefreshTime))
                 .build();
-//        }
-//        return response;
     }
 
     private Request pruneIdentification(String url, Request request) {
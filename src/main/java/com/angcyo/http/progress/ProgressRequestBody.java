@@ -26,6 +26,7 @@ public class ProgressRequestBody extends RequestBody {
     protected final RequestBody mDelegate;
     protected final ProgressListener[] mListeners;
     protected final ProgressInfo mProgressInfo;
+    private final ProgressDispatcher mDispatcher;
     private BufferedSink mBufferedSink;
 
 
@@ -35,6 +36,7 @@ public class ProgressRequestBody extends RequestBody {
         this.mHandler = handler;
         this.mRefreshTime = refreshTime;
         this.mProgressInfo = new ProgressInfo(System.currentTimeMillis());
+        this.mDispatcher = new ProgressDispatcher(handler, mListeners, mProgressInfo);
     }
 
     @Override
@@ -94,29 +96,15 @@ public class ProgressRequestBody extends RequestBody {
             }
             totalBytesRead += byteCount;
             tempSize += byteCount;
-            if (mListeners != null) {
+            if (mListeners.length > 0) {
                 long curTime = SystemClock.elapsedRealtime();
                 if (curTime - lastRefreshTime >= mRefreshTime || totalBytesRead == mProgressInfo.getContentLength()) {
-                    final long finalTempSize = tempSize;
-                    final long finalTotalBytesRead = totalBytesRead;
-                    final long finalIntervalTime = curTime - lastRefreshTime;
-
-                    LogUtil.d("Progress", "已上传:" + ProgressIntercept.formatSize(totalBytesRead) +
-                            " 共:" + ProgressIntercept.formatSize(mProgressInfo.getContentLength()));
-                    for (int i = 0; i < mListeners.length; i++) {
-                        final ProgressListener listener = mListeners[i];
-                        mHandler.post(new Runnable() {
-                            @Override
-                            public void run() {
-                                // Runnable 里的代码是通过 Handler 执行在主线程的,外面代码可能执行在其他线程
-                                // 所以我必须使用 final ,保证在 Runnable 执行前使用到的变量,在执行时不会被修改
-                                mProgressInfo.setEachBytes(finalTempSize);
-                                mProgressInfo.setCurrentbytes(finalTotalBytesRead);
-                                mProgressInfo.setIntervalTime(finalIntervalTime);
-                                mProgressInfo.setFinish(finalTotalBytesRead == mProgressInfo.getContentLength());
-                                listener.onProgress(mProgressInfo);
-                            }
-                        });
+                    //只更新最新的进度, 主线程还没处理的会被合并, 不会每次都post
+                    boolean finish = totalBytesRead == mProgressInfo.getContentLength();
+                    mDispatcher.update(tempSize, totalBytesRead, curTime - lastRefreshTime, finish);
+                    if (finish) {
+                        LogUtil.d("Progress", "已上传:" + ProgressIntercept.formatSize(totalBytesRead) +
+                                " 共:" + ProgressIntercept.formatSize(mProgressInfo.getContentLength()));
                     }
                     lastRefreshTime = curTime;
                     tempSize = 0;
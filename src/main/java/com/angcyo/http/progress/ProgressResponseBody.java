@@ -26,6 +26,7 @@ public class ProgressResponseBody extends ResponseBody {
     protected final ResponseBody mDelegate;
     protected final ProgressListener[] mListeners;
     protected final ProgressInfo mProgressInfo;
+    private final ProgressDispatcher mDispatcher;
     private BufferedSource mBufferedSource;
 
     public ProgressResponseBody(Handler handler, ResponseBody responseBody, List<ProgressListener> listeners, int refreshTime) {
@@ -34,6 +35,7 @@ public class ProgressResponseBody extends ResponseBody {
         this.mHandler = handler;
         this.mRefreshTime = refreshTime;
         this.mProgressInfo = new ProgressInfo(System.currentTimeMillis());
+        this.mDispatcher = new ProgressDispatcher(handler, mListeners, mProgressInfo);
     }
 
     @Override
@@ -78,30 +80,15 @@ public class ProgressResponseBody extends ResponseBody {
                 // read() returns the number of bytes read, or -1 if this source is exhausted.
                 totalBytesRead += bytesRead != -1 ? bytesRead : 0;
                 tempSize += bytesRead != -1 ? bytesRead : 0;
-                if (mListeners != null) {
+                if (mListeners.length > 0) {
                     long curTime = SystemClock.elapsedRealtime();
                     if (curTime - lastRefreshTime >= mRefreshTime || bytesRead == -1 || totalBytesRead == mProgressInfo.getContentLength()) {
-                        final long finalBytesRead = bytesRead;
-                        final long finalTempSize = tempSize;
-                        final long finalTotalBytesRead = totalBytesRead;
-                        final long finalIntervalTime = curTime - lastRefreshTime;
-
-                        LogUtil.d("Progress", "已下载:" + ProgressIntercept.formatSize(totalBytesRead) +
-                                " 共:" + ProgressIntercept.formatSize(mProgressInfo.getContentLength()));
-                        for (int i = 0; i < mListeners.length; i++) {
-                            final ProgressListener listener = mListeners[i];
-                            mHandler.post(new Runnable() {
-                                @Override
-                                public void run() {
-                                    // Runnable 里的代码是通过 Handler 执行在主线程的,外面代码可能执行在其他线程
-                                    // 所以我必须使用 final ,保证在 Runnable 执行前使用到的变量,在执行时不会被修改
-                                    mProgressInfo.setEachBytes(finalBytesRead != -1 ? finalTempSize : -1);
-                                    mProgressInfo.setCurrentbytes(finalTotalBytesRead);
-                                    mProgressInfo.setIntervalTime(finalIntervalTime);
-                                    mProgressInfo.setFinish(finalBytesRead == -1 && finalTotalBytesRead == mProgressInfo.getContentLength());
-                                    listener.onProgress(mProgressInfo);
-                                }
-                            });
+                        //只更新最新的进度, 主线程还没处理的会被合并, 不会每次都post
+                        mDispatcher.update(bytesRead != -1 ? tempSize : -1, totalBytesRead, curTime - lastRefreshTime,
+                                bytesRead == -1 && totalBytesRead == mProgressInfo.getContentLength());
+                        if (bytesRead == -1) {
+                            LogUtil.d("Progress", "已下载:" + ProgressIntercept.formatSize(totalBytesRead) +
+                                    " 共:" + ProgressIntercept.formatSize(mProgressInfo.getContentLength()));
                         }
                         lastRefreshTime = curTime;
                         tempSize = 0;
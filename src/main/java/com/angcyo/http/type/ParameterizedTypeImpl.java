@@ -10,12 +10,17 @@ public class ParameterizedTypeImpl implements ParameterizedType {
     private final Class raw;
     private final Type[] args;
     private final Type owner;
+    /**
+     * 类型不可变, hashCode只计算一次
+     */
+    private final int hashCode;
 
     public ParameterizedTypeImpl(Class raw, Type[] args, Type owner) {
         this.raw = raw;
         this.args = args != null ? args : new Type[0];
         this.owner = owner;
         checkArgs();
+        this.hashCode = computeHashCode();
     }
 
     private void checkArgs() {
@@ -30,7 +35,8 @@ public class ParameterizedTypeImpl implements ParameterizedType {
 
     @Override
     public Type[] getActualTypeArguments() {
-        return args;
+        //实例会被缓存共用, 不能暴露内部数组
+        return args.clone();
     }
 
     @Override
@@ -88,6 +94,7 @@ public class ParameterizedTypeImpl implements ParameterizedType {
 
         ParameterizedTypeImpl that = (ParameterizedTypeImpl) o;
 
+        if (hashCode != that.hashCode) return false;
         if (!raw.equals(that.raw)) return false;
         // Probably incorrect - comparing Object[] arrays with Arrays.equals
         if (!Arrays.equals(args, that.args)) return false;
@@ -97,6 +104,10 @@ public class ParameterizedTypeImpl implements ParameterizedType {
 
     @Override
     public int hashCode() {
+        return hashCode;
+    }
+
+    private int computeHashCode() {
         int result = raw.hashCode();
         result = 31 * result + Arrays.hashCode(args);
         result = 31 * result + (owner != null ? owner.hashCode() : 0);
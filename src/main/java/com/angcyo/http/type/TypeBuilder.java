@@ -2,12 +2,47 @@ package com.angcyo.http.type;
 
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * https://github.com/ikidou/TypeBuilder
+ * <p>
+ * 创建的泛型类型会复用最近使用过的相同实例, 减少重复的对象; 类型实现了equals和hashCode, 可以直接作为缓存的key.
  */
 public class TypeBuilder {
+    /**
+     * 复用的类型和解析过的签名各自最多缓存的数量, 超过后移除最久未使用的
+     */
+    public static int MAX_CACHE_COUNT = 256;
+
+    /**
+     * 按访问顺序排列, 由自身保护
+     */
+    private static final LinkedHashMap<Type, Type> internCache = new LinkedHashMap<>(16, 0.75f, true);
+    private static final Map<Class, Type> listCache = new ConcurrentHashMap<>();
+    private static final LinkedHashMap<String, Type> signatureCache = new LinkedHashMap<>(16, 0.75f, true);
+    private static final Map<String, Class> aliasMap = new ConcurrentHashMap<>();
+
+    static {
+        for (Class cls : new Class[]{int.class, long.class, float.class, double.class, boolean.class,
+                byte.class, short.class, char.class,
+                String.class, Object.class, Number.class, Integer.class, Long.class, Float.class,
+                Double.class, Boolean.class, Byte.class, Short.class, Character.class,
+                List.class, ArrayList.class, LinkedList.class, Map.class, HashMap.class, LinkedHashMap.class,
+                Set.class, HashSet.class, Collection.class}) {
+            aliasMap.put(cls.getSimpleName(), cls);
+        }
+    }
+
     private final TypeBuilder parent;
     private final Class raw;
     private final List<Type> args = new ArrayList<>();
@@ -34,6 +69,94 @@ public class TypeBuilder {
         return newInstance(raw).build();
     }
 
+    /**
+     * List&lt;type&gt;, 相同的type只创建一次
+     */
+    public static Type listOf(Class type) {
+        Type listType = listCache.get(type);
+        if (listType == null) {
+            listType = build(List.class, type);
+            listCache.put(type, listType);
+        }
+        return listType;
+    }
+
+    /**
+     * 通过签名创建类型, 比如 Map&lt;String, List&lt;Bean&gt;&gt;, 相同的签名只解析一次.
+     * <p>
+     * 非全类名的类需要先通过 {@link #alias(String, Class)} 注册
+     */
+    public static Type parse(String signature) {
+        Type type;
+        synchronized (signatureCache) {
+            type = signatureCache.get(signature);
+        }
+        if (type == null) {
+            type = new TypeParser(signature).parse();
+            synchronized (signatureCache) {
+                signatureCache.put(signature, type);
+                trim(signatureCache);
+            }
+        }
+        return type;
+    }
+
+    /**
+     * 注册类名对应的类, 用于 {@link #parse(String)}.
+     * 基础类型, java.lang和java.util中的常用类已经默认注册.
+     */
+    public static void alias(String name, Class cls) {
+        aliasMap.put(name, cls);
+    }
+
+    static Class forName(String name) {
+        Class cls = aliasMap.get(name);
+        if (cls != null) {
+            return cls;
+        }
+        ClassLoader classLoader = TypeBuilder.class.getClassLoader();
+        for (String className : new String[]{name, "java.lang." + name, "java.util." + name}) {
+            try {
+                return Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                //继续查找
+            }
+        }
+        throw new TypeException("class not found:" + name);
+    }
+
+    /**
+     * 返回缓存中相同类型的实例, 没有时缓存并返回自身
+     */
+    static Type intern(Type type) {
+        synchronized (internCache) {
+            Type exist = internCache.get(type);
+            if (exist != null) {
+                return exist;
+            }
+            internCache.put(type, type);
+            trim(internCache);
+            return type;
+        }
+    }
+
+    static int internCount() {
+        synchronized (internCache) {
+            return internCache.size();
+        }
+    }
+
+    /**
+     * 移除最久未使用的, 需要在同步块中调用
+     */
+    private static void trim(LinkedHashMap<?, ?> cache) {
+        Iterator<?> iterator = cache.keySet().iterator();
+        while (cache.size() > MAX_CACHE_COUNT && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
     private static TypeBuilder newInstance(Class raw, TypeBuilder parent) {
         return new TypeBuilder(raw, parent);
     }
@@ -61,7 +184,7 @@ public class TypeBuilder {
             throw new NullPointerException("addTypeParamExtends() expect not null Class");
         }
 
-        WildcardTypeImpl wildcardType = new WildcardTypeImpl(null, classes);
+        Type wildcardType = intern(new WildcardTypeImpl(null, classes));
 
         return addTypeParam(wildcardType);
     }
@@ -71,7 +194,7 @@ public class TypeBuilder {
             throw new NullPointerException("addTypeParamSuper() expect not null Class");
         }
 
-        WildcardTypeImpl wildcardType = new WildcardTypeImpl(classes, null);
+        Type wildcardType = intern(new WildcardTypeImpl(classes, null));
 
         return addTypeParam(wildcardType);
     }
@@ -98,6 +221,6 @@ public class TypeBuilder {
         if (args.isEmpty()) {
             return raw;
         }
-        return new ParameterizedTypeImpl(raw, args.toArray(new Type[args.size()]), null);
+        return intern(new ParameterizedTypeImpl(raw, args.toArray(new Type[args.size()]), null));
     }
 }
\ No newline at end of file
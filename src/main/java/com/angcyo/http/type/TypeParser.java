@@ -0,0 +1,153 @@
+package com.angcyo.http.type;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把类型签名解析成 {@link Type}, 比如:
+ * <pre>
+ *     Map&lt;String, List&lt;com.xxx.Bean&gt;&gt;
+ *     List&lt;? extends Bean&gt;
+ *     int[]
+ * </pre>
+ * 类名的查找规则见 {@link TypeBuilder#alias(String, Class)}
+ */
+class TypeParser {
+    private final String signature;
+    private int pos;
+
+    TypeParser(String signature) {
+        this.signature = signature;
+    }
+
+    Type parse() {
+        Type type = parseType();
+        skipSpace();
+        if (pos != signature.length()) {
+            throw error("unexpected '" + signature.charAt(pos) + "'");
+        }
+        return type;
+    }
+
+    private Type parseType() {
+        Class raw = TypeBuilder.forName(parseName());
+
+        List<Type> args = null;
+        skipSpace();
+        if (peek('<')) {
+            pos++;
+            args = new ArrayList<>();
+            do {
+                args.add(parseTypeArg());
+                skipSpace();
+            } while (consume(','));
+            expect('>');
+        }
+
+        int dimensions = 0;
+        skipSpace();
+        while (consume('[')) {
+            expect(']');
+            dimensions++;
+            skipSpace();
+        }
+
+        if (args != null) {
+            if (dimensions > 0) {
+                throw error("generic array is not supported");
+            }
+            return TypeBuilder.intern(new ParameterizedTypeImpl(raw, args.toArray(new Type[args.size()]), null));
+        }
+        for (int i = 0; i < dimensions; i++) {
+            raw = Array.newInstance(raw, 0).getClass();
+        }
+        return raw;
+    }
+
+    private Type parseTypeArg() {
+        skipSpace();
+        if (!consume('?')) {
+            return parseType();
+        }
+        skipSpace();
+        if (consumeKeyword("extends")) {
+            return TypeBuilder.intern(new WildcardTypeImpl(null, new Class[]{parseBound()}));
+        }
+        if (consumeKeyword("super")) {
+            return TypeBuilder.intern(new WildcardTypeImpl(new Class[]{parseBound()}, null));
+        }
+        return TypeBuilder.intern(new WildcardTypeImpl(null, new Class[]{Object.class}));
+    }
+
+    /**
+     * 通配符的边界只支持非泛型类
+     */
+    private Class parseBound() {
+        Type bound = parseType();
+        if (!(bound instanceof Class)) {
+            throw error("wildcard bound must be a class");
+        }
+        return (Class) bound;
+    }
+
+    private String parseName() {
+        skipSpace();
+        int start = pos;
+        while (pos < signature.length()) {
+            char c = signature.charAt(pos);
+            if (Character.isJavaIdentifierPart(c) || c == '.' || c == '$') {
+                pos++;
+            } else {
+                break;
+            }
+        }
+        if (start == pos) {
+            throw error("expect type name");
+        }
+        return signature.substring(start, pos);
+    }
+
+    /**
+     * 关键字后面必须是空白, 否则是类名的一部分, 比如 ? extendsFoo 不合法
+     */
+    private boolean consumeKeyword(String keyword) {
+        int end = pos + keyword.length();
+        if (end < signature.length() && signature.startsWith(keyword, pos) &&
+                Character.isWhitespace(signature.charAt(end))) {
+            pos = end;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipSpace() {
+        while (pos < signature.length() && Character.isWhitespace(signature.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private boolean peek(char c) {
+        return pos < signature.length() && signature.charAt(pos) == c;
+    }
+
+    private boolean consume(char c) {
+        if (peek(c)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        skipSpace();
+        if (!consume(c)) {
+            throw error("expect '" + c + "'");
+        }
+    }
+
+    private TypeException error(String message) {
+        return new TypeException(message + " at " + pos + " in \"" + signature + "\"");
+    }
+}
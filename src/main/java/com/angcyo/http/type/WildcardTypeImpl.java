@@ -7,12 +7,17 @@ import java.util.Arrays;
 public class WildcardTypeImpl implements WildcardType {
     private final Class[] upper;
     private final Class[] lower;
+    /**
+     * 类型不可变, hashCode只计算一次
+     */
+    private final int hashCode;
 
     public WildcardTypeImpl(Class[] lower, Class[] upper) {
         this.lower = lower != null ? lower : new Class[0];
         this.upper = upper != null ? upper : new Class[0];
 
         checkArgs();
+        this.hashCode = 31 * Arrays.hashCode(this.upper) + Arrays.hashCode(this.lower);
     }
 
     private void checkArgs() {
@@ -35,12 +40,12 @@ public class WildcardTypeImpl implements WildcardType {
 
     @Override
     public Type[] getUpperBounds() {
-        return upper;
+        return upper.clone();
     }
 
     @Override
     public Type[] getLowerBounds() {
-        return lower;
+        return lower.clone();
     }
 
     @Override
@@ -77,14 +82,12 @@ public class WildcardTypeImpl implements WildcardType {
 
         WildcardTypeImpl that = (WildcardTypeImpl) o;
 
-        return Arrays.equals(upper, that.upper) && Arrays.equals(lower, that.lower);
+        return hashCode == that.hashCode && Arrays.equals(upper, that.upper) && Arrays.equals(lower, that.lower);
 
     }
 
     @Override
     public int hashCode() {
-        int result = Arrays.hashCode(upper);
-        result = 31 * result + Arrays.hashCode(lower);
-        return result;
+        return hashCode;
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package retrofit2;
 import android.support.annotation.NonNull;
 import android.support.v4.util.ArrayMap;
 import android.text.TextUtils;
+import com.angcyo.http.ApiLatency;
 import com.angcyo.http.BuildConfig;
 
 import java.lang.reflect.Method;
@@ -38,6 +39,7 @@ public class RetrofitServiceMapping {
      * 暂不支持 Retrofit 的单例模式.
      */
     public static Retrofit mapping(@NonNull Retrofit retrofit, @NonNull Class<?> service) {
+        ApiLatency.register(service);
         if (defaultMap != null && !defaultMap.isEmpty() && enableMapping) {
             configRetrofit(retrofit, service, defaultMap);
         } else {
@@ -0,0 +1,100 @@
+package com.angcyo.http;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link CircuitBreaker} 的状态变化
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class CircuitBreakerTest {
+
+    private final long openMs = CircuitBreaker.OPEN_MS;
+
+    @After
+    public void tearDown() {
+        CircuitBreaker.OPEN_MS = openMs;
+        CircuitBreaker.resetAll();
+    }
+
+    @Test
+    public void staysClosedBelowMinCalls() {
+        CircuitBreaker breaker = CircuitBreaker.of("min.test");
+        for (int i = 0; i < CircuitBreaker.MIN_CALLS - 1; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.record(false, 1);
+        }
+        assertEquals(CircuitBreaker.STATE_CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void opensOnFailureRate() {
+        CircuitBreaker breaker = open("open.test");
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.MIN_CALLS, breaker.snapshot().calls);
+    }
+
+    @Test
+    public void halfOpenProbesClose() throws InterruptedException {
+        CircuitBreaker.OPEN_MS = 20;
+        CircuitBreaker breaker = open("close.test");
+        Thread.sleep(40);
+
+        for (int i = 0; i < CircuitBreaker.HALF_OPEN_PROBES; i++) {
+            assertTrue(breaker.tryAcquire());
+        }
+        assertEquals(CircuitBreaker.STATE_HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        for (int i = 0; i < CircuitBreaker.HALF_OPEN_PROBES; i++) {
+            breaker.record(true, 1);
+        }
+        assertEquals(CircuitBreaker.STATE_CLOSED, breaker.getState());
+        //关闭之后重新统计
+        assertEquals(0, breaker.snapshot().calls);
+    }
+
+    @Test
+    public void halfOpenFailureReopens() throws InterruptedException {
+        CircuitBreaker.OPEN_MS = 20;
+        CircuitBreaker breaker = open("reopen.test");
+        Thread.sleep(40);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.record(false, 1);
+        assertEquals(CircuitBreaker.STATE_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void releaseReturnsProbe() throws InterruptedException {
+        CircuitBreaker.OPEN_MS = 20;
+        CircuitBreaker breaker = open("release.test");
+        Thread.sleep(40);
+
+        for (int i = 0; i < CircuitBreaker.HALF_OPEN_PROBES; i++) {
+            assertTrue(breaker.tryAcquire());
+        }
+        assertFalse(breaker.tryAcquire());
+        breaker.release();
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private static CircuitBreaker open(String host) {
+        CircuitBreaker breaker = CircuitBreaker.of(host);
+        for (int i = 0; i < CircuitBreaker.MIN_CALLS; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.record(false, 1);
+        }
+        assertEquals(CircuitBreaker.STATE_OPEN, breaker.getState());
+        return breaker;
+    }
+}
@@ -0,0 +1,177 @@
+package com.angcyo.http;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link ConcurrencyLimiter} 的名额统计
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class ConcurrencyLimiterTest {
+
+    private static final ConcurrencyLimiter.Canceled NEVER = new ConcurrencyLimiter.Canceled() {
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+    };
+
+    private final long maxWaitMs = ConcurrencyLimiter.MAX_WAIT_MS;
+
+    @After
+    public void tearDown() {
+        ConcurrencyLimiter.MAX_WAIT_MS = maxWaitMs;
+    }
+
+    @Test
+    public void interruptQueuedWaiterKeepsLimit() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.of("interrupt.test");
+        int limit = fill(limiter);
+
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread waiter = acquireAsync(limiter, Priority.NORMAL, NEVER, error, null);
+        awaitQueue(limiter, 1);
+        waiter.interrupt();
+        waiter.join(5_000);
+
+        assertTrue(String.valueOf(error.get()), error.get() instanceof InterruptedIOException);
+        assertEquals(0, limiter.snapshot().queueSize);
+        assertEquals(0, limiter.snapshot().timeoutCount);
+        releaseAll(limiter, limit);
+        assertEquals(0, limiter.snapshot().inflight);
+        //名额全部可用
+        assertEquals(limit, fill(limiter));
+        releaseAll(limiter, limit);
+    }
+
+    @Test
+    public void canceledWaiterKeepsLimit() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.of("cancel.test");
+        int limit = fill(limiter);
+
+        final boolean[] canceled = new boolean[1];
+        ConcurrencyLimiter.Canceled check = new ConcurrencyLimiter.Canceled() {
+            @Override
+            public boolean isCanceled() {
+                return canceled[0];
+            }
+        };
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread waiter = acquireAsync(limiter, Priority.NORMAL, check, error, null);
+        awaitQueue(limiter, 1);
+        canceled[0] = true;
+        waiter.join(5_000);
+
+        assertTrue(String.valueOf(error.get()), error.get() instanceof IOException);
+        assertEquals(0, limiter.snapshot().timeoutCount);
+        releaseAll(limiter, limit);
+        assertEquals(0, limiter.snapshot().inflight);
+        assertEquals(limit, fill(limiter));
+        releaseAll(limiter, limit);
+    }
+
+    @Test
+    public void timeoutCountsAndKeepsLimit() throws Exception {
+        ConcurrencyLimiter.MAX_WAIT_MS = 50;
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.of("timeout.test");
+        int limit = fill(limiter);
+
+        try {
+            limiter.acquire(Priority.NORMAL, NEVER);
+            throw new AssertionError("acquire should time out");
+        } catch (ConcurrencyLimitException e) {
+            assertEquals(1, limiter.snapshot().timeoutCount);
+            assertFalse(Retry.isRetryable(e));
+        }
+        assertEquals(0, limiter.snapshot().queueSize);
+        releaseAll(limiter, limit);
+        assertEquals(0, limiter.snapshot().inflight);
+    }
+
+    @Test
+    public void releaseGrantsHigherPriorityFirst() throws Exception {
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.of("priority.test");
+        int limit = fill(limiter);
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread normal = acquireAsync(limiter, Priority.NORMAL, NEVER, error, order);
+        awaitQueue(limiter, 1);
+        Thread high = acquireAsync(limiter, Priority.HIGH, NEVER, error, order);
+        awaitQueue(limiter, 2);
+
+        limiter.release(true, -1);
+        high.join(5_000);
+        assertEquals(Collections.singletonList(Priority.HIGH), order);
+        limiter.release(true, -1);
+        normal.join(5_000);
+        assertEquals(Priority.NORMAL, (int) order.get(1));
+
+        assertEquals(null, error.get());
+        assertEquals(limit, limiter.snapshot().inflight);
+        releaseAll(limiter, limit);
+        assertEquals(0, limiter.snapshot().inflight);
+    }
+
+    /**
+     * 占满所有名额, 返回占用的数量
+     */
+    private static int fill(ConcurrencyLimiter limiter) throws IOException {
+        int limit = limiter.snapshot().limit;
+        for (int i = 0; i < limit; i++) {
+            limiter.acquire(Priority.NORMAL, NEVER);
+        }
+        assertEquals(limit, limiter.snapshot().inflight);
+        assertEquals(0, limiter.snapshot().queueSize);
+        return limit;
+    }
+
+    private static void releaseAll(ConcurrencyLimiter limiter, int count) {
+        for (int i = 0; i < count; i++) {
+            limiter.release(true, -1);
+        }
+    }
+
+    private static Thread acquireAsync(final ConcurrencyLimiter limiter, final int priority,
+                                       final ConcurrencyLimiter.Canceled canceled,
+                                       final AtomicReference<Throwable> error, final List<Integer> order) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    limiter.acquire(priority, canceled);
+                    if (order != null) {
+                        order.add(priority);
+                    }
+                } catch (Throwable e) {
+                    error.set(e);
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQueue(ConcurrencyLimiter limiter, int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (limiter.snapshot().queueSize < size) {
+            assertTrue("waiter not queued", System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.angcyo.http;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+import retrofit2.http.Streaming;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link ConditionalCache} 的304复用, 标记不改变Content-Type, 跳过流式接口, 磁盘大小限制
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class ConditionalCacheTest {
+
+    static class Bean {
+        String name;
+    }
+
+    interface Api {
+        @GET("bean")
+        Call<Bean> bean();
+
+        @GET("body")
+        Call<ResponseBody> body();
+
+        @Streaming
+        @GET("stream")
+        Call<ResponseBody> stream();
+
+        @GET("item/{id}")
+        Call<ResponseBody> item(@Path("id") int id);
+    }
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final MockWebServer server = new MockWebServer();
+    private Api api;
+    private long maxSize;
+
+    @Before
+    public void setUp() throws IOException {
+        server.start();
+        maxSize = ConditionalCache.MAX_SIZE;
+        ConditionalCache.init(folder.newFolder());
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new ConditionalCacheInterceptor())
+                .build();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(ConditionalConverterFactory.create(JsonConverterFactory.create()))
+                .client(client)
+                .build()
+                .create(Api.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        ConditionalCache.clear();
+        ConditionalCache.MAX_SIZE = maxSize;
+        server.shutdown();
+    }
+
+    @Test
+    public void notModifiedReusesDecoded() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"")
+                .setHeader("Content-Type", "application/json").setBody("{\"name\":\"a\"}"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        Bean first = api.bean().execute().body();
+        Bean second = api.bean().execute().body();
+
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+        assertEquals("a", first.name);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void contentTypeUnchanged() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"")
+                .setHeader("Content-Type", "application/json; charset=utf-8").setBody("{}"));
+        server.enqueue(new MockResponse().setResponseCode(304));
+
+        for (int i = 0; i < 2; i++) {
+            ResponseBody body = api.body().execute().body();
+            assertEquals("application/json; charset=utf-8", body.contentType().toString());
+            assertEquals("{}", body.string());
+        }
+        server.takeRequest();
+        assertEquals("\"v1\"", server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void streamingNotStored() throws Exception {
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("data"));
+        server.enqueue(new MockResponse().setHeader("ETag", "\"v1\"").setBody("data"));
+
+        api.stream().execute().body().close();
+        api.stream().execute().body().close();
+
+        server.takeRequest();
+        assertNull(server.takeRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void evictsOverMaxSize() throws Exception {
+        ConditionalCache.MAX_SIZE = 2500;
+        ConditionalCache.init(folder.newFolder());
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setHeader("ETag", "\"v" + i + "\"")
+                    .setBody(new Buffer().write(new byte[1000])));
+            api.item(i).execute().body().string();
+        }
+        //清理在DiskLruCache的线程执行
+        long deadline = System.currentTimeMillis() + 2000;
+        while (ConditionalCache.size() > ConditionalCache.MAX_SIZE && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertNull(ConditionalCache.read(key("/item/0")));
+        ConditionalCache.Entry entry = ConditionalCache.read(key("/item/2"));
+        assertEquals("\"v2\"", entry.etag);
+        entry.close();
+    }
+
+    private String key(String path) {
+        return ConditionalCache.key(new okhttp3.Request.Builder().url(server.url(path)).build());
+    }
+}
@@ -0,0 +1,61 @@
+package com.angcyo.http;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link HttpMetrics} 的endpoint计数
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class HttpMetricsTest {
+
+    private final int maxEndpoints = HttpMetrics.MAX_ENDPOINTS;
+
+    @After
+    public void tearDown() {
+        HttpMetrics.MAX_ENDPOINTS = maxEndpoints;
+        HttpMetrics.clear();
+    }
+
+    @Test
+    public void decodeTypesDoNotUseEndpointSlots() {
+        HttpMetrics.MAX_ENDPOINTS = 1;
+        HttpMetrics.recordDecode(String.class, 1_000);
+        HttpMetrics.recordDecode(Integer.class, 1_000);
+        HttpMetrics.record("GET /a", HttpMetrics.PHASE_TOTAL, 1_000);
+
+        List<String> endpoints = HttpMetrics.endpoints();
+        assertTrue(endpoints.toString(), endpoints.contains("GET /a"));
+        assertTrue(endpoints.toString(), endpoints.contains("decode java.lang.String"));
+        assertNotNull(HttpMetrics.snapshot("decode java.lang.Integer", HttpMetrics.PHASE_DECODE));
+    }
+
+    @Test
+    public void decodeTypesOverflowToOther() {
+        for (int i = 0; i < HttpMetrics.MAX_DECODE_TYPES; i++) {
+            HttpMetrics.recordDecode(type(i), 1_000);
+        }
+        HttpMetrics.recordDecode(String.class, 1_000);
+        assertEquals(1, HttpMetrics.snapshot("decode " + HttpMetrics.OTHER, HttpMetrics.PHASE_DECODE).count);
+    }
+
+    private static Type type(final int i) {
+        return new Type() {
+            @Override
+            public String toString() {
+                return "type" + i;
+            }
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.angcyo.http;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link JsonColumns} 按列解析数字记录
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class JsonColumnsTest {
+
+    @Test
+    public void readsColumns() throws Exception {
+        JsonColumns columns = new JsonColumns.Spec().addLong("t").addDouble("v").addInt("n")
+                .read("[{\"t\":1546300800000,\"v\":1.5,\"n\":1,\"x\":{\"a\":[1]}}," +
+                        "{\"v\":2.5,\"t\":1546300801000}," +
+                        "{\"t\":null,\"n\":3}," +
+                        "1]");
+
+        assertEquals(4, columns.size());
+        assertArrayEquals(new long[]{1546300800000L, 1546300801000L, 0, 0}, columns.getLongs("t"));
+        assertArrayEquals(new double[]{1.5, 2.5, 0, 0}, columns.getDoubles("v"), 0);
+        assertArrayEquals(new int[]{1, 0, 3, 0}, columns.getInts("n"));
+        assertNull(columns.getInts("t"));
+        assertNull(columns.getLongs("missing"));
+    }
+
+    @Test
+    public void readsPath() throws Exception {
+        JsonColumns.Spec spec = new JsonColumns.Spec("data.points").addInt("v");
+
+        assertArrayEquals(new int[]{1, 2}, spec.read("{\"code\":0,\"data\":{\"skip\":[1],\"points\":[{\"v\":1},{\"v\":2}]}}")
+                .getInts("v"));
+        JsonColumns empty = spec.read("{\"data\":{\"points\":{}}}");
+        assertEquals(0, empty.size());
+        assertArrayEquals(new int[0], empty.getInts("v"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateColumn() {
+        new JsonColumns.Spec().addInt("v").addLong("v");
+    }
+}
@@ -0,0 +1,99 @@
+package com.angcyo.http;
+
+import com.google.gson.annotations.SerializedName;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link JsonPlan} 通过 {@link Json#from2(String, Class)} 的字段绑定
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class JsonPlanTest {
+
+    static class Base {
+        String name;
+        int base;
+    }
+
+    static class Bean extends Base {
+        String name;
+        int i;
+        long l;
+        float f;
+        double d;
+        boolean b;
+        Integer boxed;
+        @SerializedName(value = "renamed", alternate = {"alias"})
+        String field;
+        int[] ints;
+        long[] longs;
+        double[] doubles;
+        List<Long> list;
+        List<Bean> children;
+        Bean child;
+        transient int skipped;
+        static int STATIC;
+    }
+
+    static class NoDefaultConstructor {
+        NoDefaultConstructor(int value) {
+        }
+    }
+
+    @Test
+    public void bindsFields() {
+        Bean bean = Json.from2("{\"name\":\"sub\",\"base\":3,\"i\":1,\"l\":9007199254740993,\"f\":1.5,\"d\":2.25," +
+                "\"b\":true,\"boxed\":7,\"renamed\":\"r\",\"ints\":[1,2],\"longs\":[3],\"doubles\":[0.5]," +
+                "\"list\":[1,null,2],\"children\":[{\"i\":4}],\"child\":{\"i\":5},\"skipped\":9,\"STATIC\":9," +
+                "\"unknown\":{\"x\":[1,2]}}", Bean.class);
+
+        assertEquals("sub", bean.name);
+        assertNull(((Base) bean).name);
+        assertEquals(3, bean.base);
+        assertEquals(1, bean.i);
+        assertEquals(9007199254740993L, bean.l);
+        assertEquals(1.5f, bean.f, 0);
+        assertEquals(2.25, bean.d, 0);
+        assertEquals(true, bean.b);
+        assertEquals(Integer.valueOf(7), bean.boxed);
+        assertEquals("r", bean.field);
+        assertArrayEquals(new int[]{1, 2}, bean.ints);
+        assertArrayEquals(new long[]{3}, bean.longs);
+        assertArrayEquals(new double[]{0.5}, bean.doubles, 0);
+        assertEquals(Arrays.asList(1L, null, 2L), bean.list);
+        assertEquals(4, bean.children.get(0).i);
+        assertEquals(5, bean.child.i);
+        assertEquals(0, bean.skipped);
+        assertEquals(0, Bean.STATIC);
+    }
+
+    @Test
+    public void alternateName() {
+        assertEquals("a", Json.from2("{\"alias\":\"a\"}", Bean.class).field);
+    }
+
+    @Test
+    public void mismatchedValuesAreSkipped() {
+        Bean bean = Json.from2("{\"i\":\"x\",\"l\":null,\"child\":[1],\"list\":[1,\"x\",3],\"name\":\"n\"}", Bean.class);
+
+        assertEquals(0, bean.i);
+        assertNull(bean.child);
+        assertEquals(Arrays.asList(1L, 3L), bean.list);
+        assertEquals("n", bean.name);
+    }
+
+    @Test
+    public void noDefaultConstructor() {
+        assertNull(Json.from2("{}", NoDefaultConstructor.class));
+    }
+}
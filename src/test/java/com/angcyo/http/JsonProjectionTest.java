@@ -0,0 +1,86 @@
+package com.angcyo.http;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link JsonProjection} 的路径编译和取值
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class JsonProjectionTest {
+
+    @Test
+    public void readsNestedArray() throws Exception {
+        JsonProjection projection = JsonProjection.compile("data.items[].id", "data.items[].title", "data.total");
+        JsonProjection.Result result = projection.read("{\"code\":0,\"data\":{\"skip\":{\"a\":[1,2]}," +
+                "\"items\":[{\"id\":9007199254740993,\"title\":\"a\"},{\"id\":2,\"title\":null,\"x\":[]}],\"total\":2}}");
+
+        assertEquals(2, result.size("data.items[].id"));
+        assertEquals(9007199254740993L, result.getLong("data.items[].id", 0));
+        assertEquals(2, result.getInt("data.items[].id", 1));
+        assertEquals("a", result.getString("data.items[].title", 0));
+        assertNull(result.getString("data.items[].title", 1));
+        assertEquals(2, result.getLong("data.total", 0));
+        assertTrue(result.get("missing").isEmpty());
+    }
+
+    @Test
+    public void readsRootArray() throws Exception {
+        JsonProjection projection = JsonProjection.compile("[].id", "[].tags");
+        JsonProjection.Result result = projection.read("[{\"id\":1,\"tags\":[\"a\",\"b\"]},{\"id\":2,\"tags\":{\"k\":1}}]");
+
+        assertEquals(Arrays.<Object>asList("1", "2"), result.get("[].id"));
+        assertEquals(Arrays.asList("a", "b"), result.get("[].tags").get(0));
+        assertEquals("1", ((Map) result.get("[].tags").get(1)).get("k"));
+    }
+
+    @Test
+    public void mixedRootIsConflict() {
+        assertConflict("[].id", "name");
+        assertConflict("name", "[].id");
+        assertConflict("a", "a.b");
+        assertConflict("a[].b", "a.c");
+    }
+
+    @Test
+    public void nonNumericReturnsDefault() throws Exception {
+        JsonProjection.Result result = JsonProjection.compile("a", "b", "c").read("{\"a\":\"abc\",\"b\":1.5,\"c\":true}");
+
+        assertEquals(-1, result.getLong("a", 0, -1));
+        assertEquals(0, result.getLong("a", 0));
+        assertEquals(-1.0, result.getDouble("a", 0, -1), 0);
+        assertEquals(1, result.getLong("b", 0));
+        assertEquals(1.5, result.getDouble("b", 0), 0);
+        assertEquals(7, result.getInt("c", 0, 7));
+        assertEquals(7, result.getInt("missing", 0, 7));
+        assertTrue(result.getBoolean("c", 0));
+    }
+
+    @Test
+    public void wrongTypeIsSkipped() throws Exception {
+        JsonProjection.Result result = JsonProjection.compile("data.items[].id").read("{\"data\":{\"items\":{\"id\":1}}}");
+        List<Object> ids = result.get("data.items[].id");
+        assertTrue(ids.isEmpty());
+    }
+
+    private static void assertConflict(String... paths) {
+        try {
+            JsonProjection.compile(paths);
+            fail(Arrays.toString(paths));
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("path conflict"));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.angcyo.http;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link LatencyHistogram} 的分桶和百分位计算
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketContainsValue() {
+        for (int shift = 0; shift < 32; shift++) {
+            long base = 1L << shift;
+            for (long value : new long[]{base - 1, base, base + 1, base + base / 3, (base << 1) - 1}) {
+                int index = LatencyHistogram.bucketIndex(value);
+                long lower = LatencyHistogram.bucketLowerBound(index);
+                long width = LatencyHistogram.bucketWidth(index);
+                assertTrue(value + " < " + lower, value >= lower);
+                assertTrue(value + " >= " + (lower + width), value < lower + width);
+            }
+        }
+    }
+
+    @Test
+    public void bucketsAreContiguous() {
+        for (int i = 0; i + 1 < LatencyHistogram.BUCKET_COUNT; i++) {
+            assertEquals(LatencyHistogram.bucketLowerBound(i) + LatencyHistogram.bucketWidth(i),
+                    LatencyHistogram.bucketLowerBound(i + 1));
+            assertEquals(i, LatencyHistogram.bucketIndex(LatencyHistogram.bucketLowerBound(i)));
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex((1L << 32) - 1));
+    }
+
+    @Test
+    public void relativeErrorBounded() {
+        for (int i = 16; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            double error = LatencyHistogram.bucketWidth(i) / (double) LatencyHistogram.bucketLowerBound(i);
+            assertTrue("bucket " + i + " error " + error, error <= 1 / 16.0);
+        }
+    }
+
+    @Test
+    public void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 100; ms++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(100, snapshot.count);
+        assertEquals(50, snapshot.percentileMs(50), 50 / 16.0);
+        assertEquals(99, snapshot.percentileMs(99), 99 / 16.0);
+        assertEquals(100, snapshot.percentileMs(100), 0.001);
+        assertEquals(50.5, snapshot.meanMs(), 0.001);
+    }
+
+    @Test
+    public void intervalSnapshotOnlyNewRecords() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+        assertEquals(1, histogram.intervalSnapshot().count);
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(10));
+        LatencyHistogram.Snapshot interval = histogram.intervalSnapshot();
+        assertEquals(2, interval.count);
+        assertEquals(10, interval.percentileMs(1), 10 / 16.0);
+        assertEquals(0, histogram.intervalSnapshot().count);
+    }
+}
@@ -0,0 +1,52 @@
+package com.angcyo.http;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link NumberArrays} 直接解析基础类型数组, 以及注册到Gson的TypeAdapter
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class NumberArraysTest {
+
+    static class Bean {
+        int[] ints;
+        long[] longs;
+        double[] doubles;
+    }
+
+    @Test
+    public void readsArrays() {
+        int[] ints = new int[100];
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i - 50;
+            builder.append(i == 0 ? "" : ",").append(ints[i]);
+        }
+        String json = builder.append(']').toString();
+
+        assertArrayEquals(ints, Json.fromIntArray(json));
+        assertArrayEquals(new int[0], Json.fromIntArray("[]"));
+        assertArrayEquals(new long[]{9007199254740993L, -1}, Json.fromLongArray("[9007199254740993,-1]"));
+        assertArrayEquals(new double[]{1.5, -2, 1e10}, Json.fromDoubleArray("[1.5,-2,1e10]"), 0);
+    }
+
+    @Test
+    public void gsonAdapters() {
+        Bean bean = Json.from("{\"ints\":[1,2],\"longs\":[3],\"doubles\":null}", Bean.class);
+        assertArrayEquals(new int[]{1, 2}, bean.ints);
+        assertArrayEquals(new long[]{3}, bean.longs);
+        assertNull(bean.doubles);
+
+        bean.doubles = new double[]{0.5};
+        Bean copy = Json.from(Json.to(bean), Bean.class);
+        assertArrayEquals(new int[]{1, 2}, copy.ints);
+        assertArrayEquals(new double[]{0.5}, copy.doubles, 0);
+    }
+}
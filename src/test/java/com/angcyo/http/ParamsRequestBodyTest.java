@@ -0,0 +1,106 @@
+package com.angcyo.http;
+
+import com.google.gson.GsonBuilder;
+import okhttp3.FormBody;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link ParamsRequestBody} 的输出和 Gson, {@link FormBody} 逐字节一致
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class ParamsRequestBodyTest {
+
+    private static final String[] ARGS = {
+            "quote:say \"hi\" \\ /",
+            "control:a\tb\nc\rd\be\ff\u0001g\u001f",
+            "separator:x y z",
+            "html:<a href='x'>&=</a>",
+            "unicode:中文 é 😀",
+            "number:123.45",
+            "bool:true",
+            "key with space:a+b%c&d=e",
+            "removed:1",
+            "removed:",
+            "over:1",
+            "over:2",
+    };
+
+    @After
+    public void tearDown() {
+        Json.init(new GsonBuilder());
+    }
+
+    @Test
+    public void jsonMatchesGson() throws IOException {
+        assertJson();
+    }
+
+    @Test
+    public void jsonMatchesGsonWithoutHtmlEscaping() throws IOException {
+        Json.init(new GsonBuilder().disableHtmlEscaping());
+        assertJson();
+    }
+
+    @Test
+    public void formMatchesFormBody() throws IOException {
+        FormBody.Builder builder = new FormBody.Builder();
+        for (Map.Entry<String, Object> entry : map().entrySet()) {
+            builder.add(entry.getKey(), (String) entry.getValue());
+        }
+        assertBody(builder.build(), ParamsRequestBody.form(ARGS));
+    }
+
+    @Test
+    public void emptyArgs() throws IOException {
+        assertEquals("{}", string(ParamsRequestBody.json()));
+        assertEquals("", string(ParamsRequestBody.form((String[]) null)));
+    }
+
+    private static void assertJson() throws IOException {
+        assertBody(Http.getJsonBody(Json.to(map())), ParamsRequestBody.json(ARGS));
+    }
+
+    private static void assertBody(RequestBody expected, RequestBody actual) throws IOException {
+        String body = string(expected);
+        assertEquals(body, string(actual));
+        assertEquals(expected.contentLength(), actual.contentLength());
+        assertEquals(expected.contentType().type(), actual.contentType().type());
+        assertEquals(expected.contentType().subtype(), actual.contentType().subtype());
+    }
+
+    /**
+     * 和 {@link Http#map(String...)} 的规则一致, 按参数顺序保存
+     */
+    private static Map<String, Object> map() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (String arg : ARGS) {
+            int index = arg.indexOf(':');
+            String key = arg.substring(0, index);
+            String value = arg.substring(index + 1);
+            map.remove(key);
+            if (!value.isEmpty()) {
+                map.put(key, value);
+            }
+        }
+        return map;
+    }
+
+    private static String string(RequestBody body) throws IOException {
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        return buffer.readUtf8();
+    }
+}
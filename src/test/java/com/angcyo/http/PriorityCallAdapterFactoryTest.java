@@ -0,0 +1,166 @@
+package com.angcyo.http;
+
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link PriorityCallAdapterFactory} 在Dispatcher线程不够时按优先级交出请求
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class PriorityCallAdapterFactoryTest {
+
+    interface Api {
+        @GET("normal")
+        Call<ResponseBody> normal(@Query("id") int id);
+
+        @Priority(Priority.LOW)
+        @GET("low")
+        Call<ResponseBody> low(@Query("id") int id);
+
+        @Priority(Priority.HIGH)
+        @GET("high")
+        Call<ResponseBody> high(@Query("id") int id);
+    }
+
+    private final MockWebServer server = new MockWebServer();
+    private final Semaphore respond = new Semaphore(0);
+    private final List<String> arrived = Collections.synchronizedList(new ArrayList<String>());
+    private Dispatcher dispatcher;
+    private Api api;
+
+    @Before
+    public void setUp() throws IOException {
+        server.setDispatcher(new okhttp3.mockwebserver.Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                arrived.add(request.getPath());
+                respond.acquire();
+                return new MockResponse().setBody("ok");
+            }
+        });
+        server.start();
+        dispatcher = new Dispatcher();
+        //只有2个线程, 其他请求都需要排队
+        dispatcher.setMaxRequestsPerHost(2);
+        OkHttpClient client = new OkHttpClient.Builder().dispatcher(dispatcher).build();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .addCallAdapterFactory(PriorityCallAdapterFactory.create())
+                .build()
+                .create(Api.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        respond.release(100);
+        server.shutdown();
+    }
+
+    @Test
+    public void highPriorityRunsBeforeQueuedLow() throws Exception {
+        CountDownLatch done = new CountDownLatch(8);
+        api.normal(0).enqueue(new Done(done, null));
+        api.normal(1).enqueue(new Done(done, null));
+        awaitArrived(2);
+
+        for (int i = 0; i < 4; i++) {
+            api.low(i).enqueue(new Done(done, null));
+        }
+        api.high(0).enqueue(new Done(done, null));
+        api.high(1).enqueue(new Done(done, null));
+        assertEquals(6, PriorityCallAdapterFactory.queueSize(dispatcher));
+
+        //每次只放行一个响应, 空出的线程交给排队中优先级最高的请求
+        for (int i = 0; i < 8; i++) {
+            respond.release();
+            awaitArrived(Math.min(8, i + 3));
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("/high?id=0", "/high?id=1", "/low?id=0", "/low?id=1", "/low?id=2", "/low?id=3"),
+                arrived.subList(2, 8));
+        assertEquals(0, PriorityCallAdapterFactory.queueSize(dispatcher));
+    }
+
+    @Test
+    public void cancelQueuedCall() throws Exception {
+        CountDownLatch done = new CountDownLatch(3);
+        api.normal(0).enqueue(new Done(done, null));
+        api.normal(1).enqueue(new Done(done, null));
+        awaitArrived(2);
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Call<ResponseBody> call = api.low(0);
+        call.enqueue(new Done(done, error));
+        assertEquals(1, PriorityCallAdapterFactory.queueSize(dispatcher));
+        call.cancel();
+        assertEquals(0, PriorityCallAdapterFactory.queueSize(dispatcher));
+        assertTrue(String.valueOf(error.get()), error.get() instanceof IOException);
+
+        respond.release(2);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, server.getRequestCount());
+    }
+
+    private void awaitArrived(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (arrived.size() < count) {
+            assertTrue("arrived:" + arrived, System.currentTimeMillis() < deadline);
+            Thread.sleep(5);
+        }
+    }
+
+    private static final class Done implements Callback<ResponseBody> {
+        final CountDownLatch latch;
+        final AtomicReference<Throwable> error;
+
+        Done(CountDownLatch latch, AtomicReference<Throwable> error) {
+            this.latch = latch;
+            this.error = error;
+        }
+
+        @Override
+        public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+            response.body().close();
+            latch.countDown();
+        }
+
+        @Override
+        public void onFailure(Call<ResponseBody> call, Throwable t) {
+            if (error != null) {
+                error.set(t);
+            }
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.angcyo.http;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link RetryBudget} 的令牌计算
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class RetryBudgetTest {
+
+    @Test
+    public void startsFullAndDrains() {
+        RetryBudget budget = new RetryBudget(0.1, 0, 3);
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void depositsByRatio() {
+        RetryBudget budget = drained(0.1, 0, 3);
+        for (int i = 0; i < 9; i++) {
+            budget.deposit();
+        }
+        assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+    }
+
+    @Test
+    public void cappedAtMaxTokens() {
+        RetryBudget budget = new RetryBudget(1, 0, 3);
+        for (int i = 0; i < 100; i++) {
+            budget.deposit();
+        }
+        assertEquals(3, budget.available(), 0.001);
+    }
+
+    @Test
+    public void refillsPerSecond() throws InterruptedException {
+        RetryBudget budget = drained(0, 100, 3);
+        Thread.sleep(50);
+        assertTrue(budget.tryWithdraw());
+    }
+
+    private static RetryBudget drained(double ratio, double minPerSecond, int maxTokens) {
+        RetryBudget budget = new RetryBudget(ratio, minPerSecond, maxTokens);
+        while (budget.tryWithdraw()) {
+        }
+        return budget;
+    }
+}
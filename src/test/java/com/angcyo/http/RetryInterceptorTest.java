@@ -0,0 +1,108 @@
+package com.angcyo.http;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.internal.http.HttpDate;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+import java.io.IOException;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link RetryInterceptor} 默认不重试, {@link Retries} 开启重试, Retry-After 的两种格式
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class RetryInterceptorTest {
+
+    interface Api {
+        @GET("plain")
+        Call<ResponseBody> plain();
+
+        @Retries(1)
+        @GET("retry")
+        Call<ResponseBody> retry();
+    }
+
+    private final MockWebServer server = new MockWebServer();
+    private Api api;
+    private RetryBudget budget;
+
+    @Before
+    public void setUp() throws IOException {
+        server.start();
+        budget = Retry.BUDGET;
+        Retry.BUDGET = new RetryBudget(1, 10, 10);
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new RetryInterceptor())
+                .build();
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .client(client)
+                .build()
+                .create(Api.class);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Retry.BUDGET = budget;
+        server.shutdown();
+    }
+
+    @Test
+    public void noRetryByDefault() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        assertEquals(503, api.plain().execute().code());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void retriesWhenAnnotated() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503).setHeader("Retry-After", "0"));
+        server.enqueue(new MockResponse().setBody("ok"));
+
+        assertEquals("ok", api.retry().execute().body().string());
+        assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void retryAfterFormats() {
+        assertEquals(2000, RetryInterceptor.retryAfter(response("2"), 100));
+        assertEquals(100, RetryInterceptor.retryAfter(response("soon"), 100));
+
+        String date = HttpDate.format(new Date(System.currentTimeMillis() + 3000));
+        long delay = RetryInterceptor.retryAfter(response(date), 100);
+        assertTrue(String.valueOf(delay), delay > 1000 && delay <= 3000);
+
+        String past = HttpDate.format(new Date(System.currentTimeMillis() - 3000));
+        assertEquals(0, RetryInterceptor.retryAfter(response(past), 100));
+    }
+
+    private static Response response(String retryAfter) {
+        return new Response.Builder()
+                .request(new Request.Builder().url("http://localhost/").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(503)
+                .message("")
+                .header("Retry-After", retryAfter)
+                .build();
+    }
+}
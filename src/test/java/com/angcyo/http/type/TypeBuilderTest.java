@@ -0,0 +1,103 @@
+package com.angcyo.http.type;
+
+import com.google.gson.internal.$Gson$Types;
+import com.google.gson.reflect.TypeToken;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link TypeParser} 的签名解析和 {@link TypeBuilder} 的实例复用
+ * <p>
+ * Email:angcyo@126.com
+ *
+ * @author angcyo
+ * @date 2026/10/18
+ */
+public class TypeBuilderTest {
+
+    private final int maxCacheCount = TypeBuilder.MAX_CACHE_COUNT;
+
+    @After
+    public void tearDown() {
+        TypeBuilder.MAX_CACHE_COUNT = maxCacheCount;
+    }
+
+    @Test
+    public void parsesSignatures() {
+        assertType(new TypeToken<Map<String, List<Integer>>>() {
+        }.getType(), " Map < String , List<Integer> > ");
+        assertType(new TypeToken<List<? extends Number>>() {
+        }.getType(), "List<? extends Number>");
+        WildcardType wildcard = (WildcardType) ((ParameterizedType) TypeBuilder.parse("List<?\tsuper Integer>"))
+                .getActualTypeArguments()[0];
+        assertArrayEquals(new Type[]{Integer.class}, wildcard.getLowerBounds());
+        assertType(new TypeToken<List<?>>() {
+        }.getType(), "List<?>");
+        assertType(new TypeToken<List<TypeBuilderTest>>() {
+        }.getType(), "List<com.angcyo.http.type.TypeBuilderTest>");
+        assertEquals(int[].class, TypeBuilder.parse("int[]"));
+        assertEquals(String[][].class, TypeBuilder.parse("String[] []"));
+    }
+
+    @Test
+    public void rejectsBadSignatures() {
+        assertError("List<? extendsNumber>");
+        assertError("List<? superInteger>");
+        assertError("List<? extends>");
+        assertError("List<String");
+        assertError("List<String>[]");
+        assertError("List<? extends List<String>>");
+        assertError("NoSuchClass");
+        assertError("int[");
+    }
+
+    @Test
+    public void reusesInstances() {
+        Type type = TypeBuilder.parse("List<Integer>");
+        assertSame(type, TypeBuilder.listOf(Integer.class));
+        assertSame(type, TypeBuilder.build(List.class, Integer.class));
+        assertSame(TypeBuilder.parse("Map<String, ? extends Number>"),
+                TypeBuilder.newInstance(Map.class).addTypeParam(String.class)
+                        .addTypeParamExtends(Number.class).build());
+    }
+
+    @Test
+    public void cacheIsBounded() {
+        TypeBuilder.MAX_CACHE_COUNT = 4;
+        Class[] classes = {String.class, Integer.class, Long.class, Double.class, Float.class,
+                Short.class, Byte.class, Character.class, Boolean.class, Number.class};
+        Type first = TypeBuilder.build(List.class, classes[0]);
+        for (Class cls : classes) {
+            TypeBuilder.build(List.class, cls);
+        }
+        assertTrue(String.valueOf(TypeBuilder.internCount()), TypeBuilder.internCount() <= 4);
+        //移除之后重新创建, 仍然相等
+        assertEquals(first, TypeBuilder.build(List.class, classes[0]));
+    }
+
+    private static void assertType(Type expected, String signature) {
+        Type type = TypeBuilder.parse(signature);
+        assertTrue(type.toString(), $Gson$Types.equals(expected, type));
+    }
+
+    private static void assertError(String signature) {
+        try {
+            TypeBuilder.parse(signature);
+            fail(signature);
+        } catch (TypeException e) {
+            //expected
+        }
+    }
+}